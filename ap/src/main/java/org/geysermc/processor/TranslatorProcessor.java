@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a registry of every class annotated with {@code @Translator}, so the connector does not
+ * have to scan the classpath for them on startup.
+ */
+@SupportedAnnotationTypes(TranslatorProcessor.TRANSLATOR_ANNOTATION)
+public class TranslatorProcessor extends AbstractProcessor {
+
+    static final String TRANSLATOR_ANNOTATION = "org.geysermc.connector.network.translators.Translator";
+
+    private static final String REGISTRY_PACKAGE = "org.geysermc.connector.network.translators";
+    private static final String REGISTRY_CLASS = "GeneratedTranslatorRegistry";
+
+    private static final String JAVA_PACKET = "com.github.steveice10.packetlib.packet.Packet";
+    private static final String BEDROCK_PACKET = "com.nukkitx.protocol.bedrock.BedrockPacket";
+
+    private final List<TypeElement> translators = new ArrayList<>();
+    private boolean written;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    translators.add((TypeElement) element);
+                }
+            }
+        }
+
+        // Translators are all written by hand, so they are all found in the first round
+        if (!written && !translators.isEmpty()) {
+            writeRegistry();
+            written = true;
+        }
+        return false;
+    }
+
+    private void writeRegistry() {
+        TypeMirror javaPacket = processingEnv.getElementUtils().getTypeElement(JAVA_PACKET).asType();
+        TypeMirror bedrockPacket = processingEnv.getElementUtils().getTypeElement(BEDROCK_PACKET).asType();
+
+        List<String> registrations = new ArrayList<>();
+        for (TypeElement translator : translators) {
+            TypeMirror packet = getPacket(translator);
+            if (packet == null) {
+                continue;
+            }
+
+            String registration;
+            if (processingEnv.getTypeUtils().isAssignable(packet, javaPacket)) {
+                registration = "Registry.registerJava(";
+            } else if (processingEnv.getTypeUtils().isAssignable(packet, bedrockPacket)) {
+                registration = "Registry.registerBedrock(";
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Translator has an invalid target packet: " + packet, translator);
+                continue;
+            }
+            registrations.add(registration + packet + ".class, new " + translator.getQualifiedName() + "());");
+        }
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(REGISTRY_PACKAGE + "." + REGISTRY_CLASS, translators.toArray(new Element[0]));
+            try (PrintWriter writer = new PrintWriter(file.openWriter())) {
+                writer.println("package " + REGISTRY_PACKAGE + ";");
+                writer.println();
+                writer.println("/**");
+                writer.println(" * Generated by " + getClass().getName() + ", do not edit");
+                writer.println(" */");
+                writer.println("public final class " + REGISTRY_CLASS + " {");
+                writer.println();
+                writer.println("    private " + REGISTRY_CLASS + "() {");
+                writer.println("    }");
+                writer.println();
+                writer.println("    public static void registerAll() {");
+                for (String registration : registrations) {
+                    writer.println("        " + registration);
+                }
+                writer.println("    }");
+                writer.println("}");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write translator registry: " + e.getMessage());
+        }
+    }
+
+    private TypeMirror getPacket(TypeElement translator) {
+        for (AnnotationMirror annotation : translator.getAnnotationMirrors()) {
+            if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(TRANSLATOR_ANNOTATION)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("packet")) {
+                    return (TypeMirror) entry.getValue().getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
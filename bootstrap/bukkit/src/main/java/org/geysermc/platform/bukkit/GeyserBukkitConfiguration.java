@@ -111,6 +111,51 @@ public class GeyserBukkitConfiguration implements IGeyserConfiguration {
         return Paths.get(dataFolder.toString(), config.getString("floodgate-key-file", "public-key.pem"));
     }
 
+    @Override
+    public int getTranslatedChunkCacheSize() {
+        return config.getInt("translated-chunk-cache-size", 64);
+    }
+
+    @Override
+    public int getChunkThreadPool() {
+        return config.getInt("chunk-thread-pool", 4);
+    }
+
+    @Override
+    public int getChunkQueueSize() {
+        return config.getInt("chunk-queue-size", 1024);
+    }
+
+    @Override
+    public int getChunkSendBudget() {
+        return config.getInt("chunk-send-budget", 131072);
+    }
+
+    @Override
+    public int getSectionResendThreshold() {
+        return config.getInt("section-resend-threshold", 0);
+    }
+
+    @Override
+    public int getTranslationThreadPool() {
+        return config.getInt("translation-thread-pool", 0);
+    }
+
+    @Override
+    public boolean isUseVirtualThreads() {
+        return config.getBoolean("use-virtual-threads", false);
+    }
+
+    @Override
+    public int getEntityMovementInterval() {
+        return config.getInt("entity-movement-interval", 50);
+    }
+
+    @Override
+    public int getFullRateEntityDistance() {
+        return config.getInt("full-rate-entity-distance", 32);
+    }
+
     @Override
     public IMetricsInfo getMetrics() {
         return metricsInfo;
@@ -115,6 +115,51 @@ public class GeyserSpongeConfiguration implements IGeyserConfiguration {
         return Paths.get(dataFolder.toString(), node.getNode("floodgate-key-file").getString("public-key.pem"));
     }
 
+    @Override
+    public int getTranslatedChunkCacheSize() {
+        return node.getNode("translated-chunk-cache-size").getInt(64);
+    }
+
+    @Override
+    public int getChunkThreadPool() {
+        return node.getNode("chunk-thread-pool").getInt(4);
+    }
+
+    @Override
+    public int getChunkQueueSize() {
+        return node.getNode("chunk-queue-size").getInt(1024);
+    }
+
+    @Override
+    public int getChunkSendBudget() {
+        return node.getNode("chunk-send-budget").getInt(131072);
+    }
+
+    @Override
+    public int getSectionResendThreshold() {
+        return node.getNode("section-resend-threshold").getInt(0);
+    }
+
+    @Override
+    public int getTranslationThreadPool() {
+        return node.getNode("translation-thread-pool").getInt(0);
+    }
+
+    @Override
+    public boolean isUseVirtualThreads() {
+        return node.getNode("use-virtual-threads").getBoolean(false);
+    }
+
+    @Override
+    public int getEntityMovementInterval() {
+        return node.getNode("entity-movement-interval").getInt(50);
+    }
+
+    @Override
+    public int getFullRateEntityDistance() {
+        return node.getNode("full-rate-entity-distance").getInt(32);
+    }
+
     @Override
     public SpongeMetricsInfo getMetrics() {
         return metricsInfo;
@@ -66,6 +66,33 @@ public class GeyserVelocityConfiguration implements IGeyserConfiguration {
     @JsonProperty("default-locale")
     private String defaultLocale;
 
+    @JsonProperty("translated-chunk-cache-size")
+    private int translatedChunkCacheSize = 64;
+
+    @JsonProperty("chunk-thread-pool")
+    private int chunkThreadPool = 4;
+
+    @JsonProperty("chunk-queue-size")
+    private int chunkQueueSize = 1024;
+
+    @JsonProperty("chunk-send-budget")
+    private int chunkSendBudget = 131072;
+
+    @JsonProperty("section-resend-threshold")
+    private int sectionResendThreshold = 0;
+
+    @JsonProperty("translation-thread-pool")
+    private int translationThreadPool = 0;
+
+    @JsonProperty("use-virtual-threads")
+    private boolean useVirtualThreads = false;
+
+    @JsonProperty("entity-movement-interval")
+    private int entityMovementInterval = 50;
+
+    @JsonProperty("full-rate-entity-distance")
+    private int fullRateEntityDistance = 32;
+
     private MetricsInfo metrics;
 
     @Override
@@ -50,6 +50,24 @@ public interface IGeyserConfiguration {
 
     Path getFloodgateKeyFile();
 
+    int getTranslatedChunkCacheSize();
+
+    int getChunkThreadPool();
+
+    int getChunkQueueSize();
+
+    int getChunkSendBudget();
+
+    int getSectionResendThreshold();
+
+    int getTranslationThreadPool();
+
+    boolean isUseVirtualThreads();
+
+    int getEntityMovementInterval();
+
+    int getFullRateEntityDistance();
+
     IMetricsInfo getMetrics();
 
     interface IBedrockConfiguration {
@@ -42,17 +42,23 @@ import org.geysermc.connector.network.remote.RemoteServer;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.Translators;
 import org.geysermc.connector.thread.PingPassthroughThread;
+import org.geysermc.connector.utils.EntityUtils;
+import org.geysermc.connector.utils.ThreadUtils;
 import org.geysermc.connector.utils.Toolbox;
+import org.geysermc.connector.world.chunk.ChunkPayloadCache;
 import org.geysermc.common.IGeyserConfiguration;
 
 import java.net.InetSocketAddress;
 import java.text.DecimalFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 @Getter
@@ -75,6 +81,13 @@ public class GeyserConnector {
     private boolean shuttingDown = false;
 
     private final ScheduledExecutorService generalThreadPool;
+    private final ThreadPoolExecutor chunkThreadPool;
+    private final ExecutorService translationThreadPool;
+    /**
+     * Runs blocking work on virtual threads, null when virtual threads are disabled or unavailable
+     */
+    private final ExecutorService virtualThreadExecutor;
+    private final ChunkPayloadCache chunkPayloadCache;
     private PingPassthroughThread passthroughThread;
 
     private BedrockServer bedrockServer;
@@ -102,10 +115,29 @@ public class GeyserConnector {
         logger.info("******************************************");
 
         this.generalThreadPool = Executors.newScheduledThreadPool(config.getGeneralThreadPool());
+        this.chunkThreadPool = new ThreadPoolExecutor(config.getChunkThreadPool(), config.getChunkThreadPool(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getChunkQueueSize()), (task, executor) -> {
+                    // Translating on the calling thread slows down the remote connection until the queue catches up
+                    logger.debug("Chunk translation queue is full, translating on the network thread");
+                    if (!executor.isShutdown()) {
+                        task.run();
+                    }
+                });
+        this.translationThreadPool = config.getTranslationThreadPool() > 0 ? Executors.newFixedThreadPool(config.getTranslationThreadPool()) : null;
+        if (config.isUseVirtualThreads()) {
+            this.virtualThreadExecutor = ThreadUtils.newVirtualThreadExecutor("Geyser Virtual Thread #");
+            if (virtualThreadExecutor == null) {
+                logger.warning("Virtual threads require Java 21 or newer, using platform threads instead");
+            }
+        } else {
+            this.virtualThreadExecutor = null;
+        }
+        this.chunkPayloadCache = new ChunkPayloadCache(config.getTranslatedChunkCacheSize() * 1024L * 1024L);
 
         logger.setDebug(config.isDebugMode());
 
         Toolbox.init();
+        EntityUtils.init();
         Translators.start();
 
         commandMap = new GeyserCommandMap(this);
@@ -178,6 +210,14 @@ public class GeyserConnector {
         }
 
         generalThreadPool.shutdown();
+        chunkThreadPool.shutdown();
+        if (translationThreadPool != null) {
+            translationThreadPool.shutdown();
+        }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+        chunkPayloadCache.clear();
         bedrockServer.close();
         players.clear();
         remoteServer = null;
@@ -188,6 +228,15 @@ public class GeyserConnector {
         bootstrap.getGeyserLogger().info("Geyser shutdown successfully.");
     }
 
+    /**
+     * Gets the amount of chunks waiting for a chunk thread across all sessions
+     *
+     * @return the chunk translation queue depth
+     */
+    public int getChunkQueueDepth() {
+        return chunkThreadPool.getQueue().size();
+    }
+
     public void addPlayer(GeyserSession player) {
         players.put(player.getSocketAddress(), player);
     }
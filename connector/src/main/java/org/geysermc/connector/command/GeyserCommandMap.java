@@ -29,6 +29,7 @@ import lombok.Getter;
 import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.command.defaults.HelpCommand;
 import org.geysermc.connector.command.defaults.ReloadCommand;
+import org.geysermc.connector.command.defaults.StatisticsCommand;
 import org.geysermc.connector.command.defaults.StopCommand;
 
 import java.util.Collections;
@@ -48,6 +49,7 @@ public class GeyserCommandMap {
         registerCommand(new HelpCommand(connector, "help", "Shows help for all registered commands.", "geyser.command.help"));
         registerCommand(new ReloadCommand(connector, "reload", "Reloads the Geyser configurations. Kicks all players when used!", "geyser.command.reload"));
         registerCommand(new StopCommand(connector, "stop", "Shuts down Geyser.", "geyser.command.stop"));
+        registerCommand(new StatisticsCommand(connector, "stats", "Shows packet translation and chunk cache statistics.", "geyser.command.stats"));
     }
 
     public void registerCommand(GeyserCommand command) {
@@ -74,7 +76,7 @@ public class GeyserCommandMap {
             args = new String[0];
         } else {
             label = command.substring(0, command.indexOf(" ")).toLowerCase();
-            String argLine = command.substring(command.indexOf(" " + 1));
+            String argLine = command.substring(command.indexOf(" ") + 1);
             args = argLine.contains(" ") ? argLine.split(" ") : new String[] { argLine };
         }
 
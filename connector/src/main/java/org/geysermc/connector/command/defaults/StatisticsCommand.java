@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.command.defaults;
+
+import org.geysermc.common.ChatColor;
+import org.geysermc.connector.GeyserConnector;
+import org.geysermc.connector.command.CommandSender;
+import org.geysermc.connector.command.GeyserCommand;
+import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.network.translators.Registry;
+import org.geysermc.connector.world.chunk.ChunkPayloadCache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class StatisticsCommand extends GeyserCommand {
+
+    /**
+     * The amount of packet types listed per direction
+     */
+    private static final int SHOWN_PACKETS = 10;
+
+    private GeyserConnector connector;
+
+    public StatisticsCommand(GeyserConnector connector, String name, String description, String permission) {
+        super(name, description, permission);
+        this.connector = connector;
+    }
+
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("reset")) {
+            Registry.JAVA.resetStats();
+            Registry.BEDROCK.resetStats();
+            sender.sendMessage(ChatColor.YELLOW + "Packet statistics have been reset.");
+            return;
+        }
+
+        sendPacketStats(sender, "Java", Registry.JAVA.getStats());
+        sendPacketStats(sender, "Bedrock", Registry.BEDROCK.getStats());
+
+        ChunkPayloadCache payloadCache = connector.getChunkPayloadCache();
+        sender.sendMessage(ChatColor.YELLOW + "---- Chunks ----");
+        sender.sendMessage(ChatColor.YELLOW + "Payload cache: " + ChatColor.WHITE + payloadCache.size() + " chunks, "
+                + (payloadCache.getUsedBytes() / 1024) + " KiB, " + payloadCache.getHits() + " hits, "
+                + payloadCache.getMisses() + " misses, " + payloadCache.getEvictions() + " evictions");
+        sender.sendMessage(ChatColor.YELLOW + "Translation queue: " + ChatColor.WHITE + connector.getChunkQueueDepth() + " tasks");
+
+        int columns = 0;
+        long memoryUsage = 0;
+        long suppressedUpdates = 0;
+        int pendingChunks = 0;
+        int queuedTasks = 0;
+        int maxQueuedTasks = 0;
+        List<GeyserSession> sessions = new ArrayList<>(connector.getPlayers().values());
+        for (GeyserSession session : sessions) {
+            columns += session.getChunkCache().size();
+            memoryUsage += session.getChunkCache().getMemoryUsage();
+            suppressedUpdates += session.getChunkCache().getSuppressedBlockUpdates();
+            pendingChunks += session.getChunkSendQueue().size();
+            if (session.getTranslationMailbox() != null) {
+                int depth = session.getTranslationMailbox().getDepth();
+                queuedTasks += depth;
+                maxQueuedTasks = Math.max(maxQueuedTasks, depth);
+            }
+        }
+        sender.sendMessage(ChatColor.YELLOW + "Cached columns: " + ChatColor.WHITE + columns + " across "
+                + sessions.size() + " session(s), " + (memoryUsage / 1024) + " KiB");
+        sender.sendMessage(ChatColor.YELLOW + "Pending chunk sends: " + ChatColor.WHITE + pendingChunks);
+        sender.sendMessage(ChatColor.YELLOW + "Suppressed block updates: " + ChatColor.WHITE + suppressedUpdates);
+        if (connector.getTranslationThreadPool() != null) {
+            sender.sendMessage(ChatColor.YELLOW + "Queued packet translations: " + ChatColor.WHITE + queuedTasks
+                    + " (at most " + maxQueuedTasks + " for one session)");
+        }
+    }
+
+    private void sendPacketStats(CommandSender sender, String direction, List<Registry.PacketStats> stats) {
+        stats.sort(Comparator.comparingLong(Registry.PacketStats::getNanos).reversed());
+
+        sender.sendMessage(ChatColor.YELLOW + "---- " + direction + " packets by translation time ----");
+        int shown = 0;
+        for (Registry.PacketStats packetStats : stats) {
+            long count = packetStats.getCount();
+            if (count == 0) {
+                continue;
+            }
+            if (shown++ == SHOWN_PACKETS) {
+                break;
+            }
+
+            String name = packetStats.getPacketClass().getSimpleName();
+            if (!packetStats.isTranslated()) {
+                sender.sendMessage(ChatColor.YELLOW + name + ": " + ChatColor.WHITE + count + " received, not translated");
+                continue;
+            }
+            long nanos = packetStats.getNanos();
+            sender.sendMessage(ChatColor.YELLOW + name + ": " + ChatColor.WHITE + count + " packets, "
+                    + String.format("%.2f", nanos / 1_000_000D) + " ms total, "
+                    + String.format("%.2f", nanos / 1_000D / count) + " µs avg");
+        }
+    }
+}
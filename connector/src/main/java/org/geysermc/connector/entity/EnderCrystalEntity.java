@@ -73,6 +73,7 @@ public class EnderCrystalEntity extends Entity {
         addEntityPacket.setRotation(getBedrockRotation());
         addEntityPacket.setEntityType(entityType.getType());
         addEntityPacket.getMetadata().putAll(metadata);
+        markBedrockMetadataSent();
 
         valid = true;
         session.getUpstream().sendPacket(addEntityPacket);
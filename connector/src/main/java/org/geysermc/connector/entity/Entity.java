@@ -38,6 +38,7 @@ import com.nukkitx.protocol.bedrock.packet.*;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -53,6 +54,8 @@ import java.util.*;
 @Getter
 @Setter
 public class Entity {
+    private static final EntityFlag[] ENTITY_FLAGS = EntityFlag.values();
+
     protected long entityId;
     protected long geyserId;
 
@@ -66,6 +69,8 @@ public class Entity {
      */
     protected Vector3f rotation;
 
+    protected boolean onGround;
+
     protected float scale = 1;
 
     protected EntityType entityType;
@@ -73,9 +78,28 @@ public class Entity {
     protected boolean valid;
 
     protected LongSet passengers = new LongOpenHashSet();
-    protected Map<AttributeType, Attribute> attributes = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    protected final Map<AttributeType, Attribute> attributes = new EnumMap<>(AttributeType.class);
+    /**
+     * The attributes that changed since they were last sent, as bits by ordinal
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long dirtyAttributes;
     protected EntityDataMap metadata = new EntityDataMap();
 
+    /**
+     * The metadata last sent to the client, used to only send metadata that changed.
+     * Flags are kept separately, null if they have not been sent.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<EntityData, Object> sentMetadata = new EnumMap<>(EntityData.class);
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private EntityFlags sentFlags;
+
     public Entity(long entityId, long geyserId, EntityType entityType, Vector3f position, Vector3f motion, Vector3f rotation) {
         this.entityId = entityId;
         this.geyserId = geyserId;
@@ -112,6 +136,7 @@ public class Entity {
         addEntityPacket.setRotation(getBedrockRotation());
         addEntityPacket.setEntityType(entityType.getType());
         addEntityPacket.getMetadata().putAll(metadata);
+        markBedrockMetadataSent();
 
         valid = true;
         session.getUpstream().sendPacket(addEntityPacket);
@@ -139,16 +164,10 @@ public class Entity {
 
     public void moveRelative(GeyserSession session, double relX, double relY, double relZ, Vector3f rotation, boolean isOnGround) {
         setRotation(rotation);
+        setOnGround(isOnGround);
         this.position = Vector3f.from(position.getX() + relX, position.getY() + relY, position.getZ() + relZ);
 
-        MoveEntityAbsolutePacket moveEntityPacket = new MoveEntityAbsolutePacket();
-        moveEntityPacket.setRuntimeEntityId(geyserId);
-        moveEntityPacket.setPosition(position);
-        moveEntityPacket.setRotation(getBedrockRotation());
-        moveEntityPacket.setOnGround(isOnGround);
-        moveEntityPacket.setTeleported(false);
-
-        session.getUpstream().sendPacket(moveEntityPacket);
+        session.getEntityMovementQueue().queue(this);
     }
 
     public void moveAbsolute(GeyserSession session, Vector3f position, float yaw, float pitch, boolean isOnGround) {
@@ -158,27 +177,69 @@ public class Entity {
     public void moveAbsolute(GeyserSession session, Vector3f position, Vector3f rotation, boolean isOnGround) {
         setPosition(position);
         setRotation(rotation);
+        setOnGround(isOnGround);
 
+        session.getEntityMovementQueue().queue(this);
+    }
+
+    /**
+     * Sends the current position and rotation of this entity to the client
+     *
+     * @param session the session to send the movement to
+     */
+    public void sendMovement(GeyserSession session) {
         MoveEntityAbsolutePacket moveEntityPacket = new MoveEntityAbsolutePacket();
         moveEntityPacket.setRuntimeEntityId(geyserId);
         moveEntityPacket.setPosition(position);
         moveEntityPacket.setRotation(getBedrockRotation());
-        moveEntityPacket.setOnGround(isOnGround);
+        moveEntityPacket.setOnGround(onGround);
         moveEntityPacket.setTeleported(false);
 
         session.getUpstream().sendPacket(moveEntityPacket);
     }
 
+    public Attribute getAttribute(AttributeType type) {
+        return attributes.get(type);
+    }
+
+    /**
+     * Sets an attribute, which is sent with the next {@link #updateBedrockAttributes(GeyserSession)} if it changed
+     *
+     * @param attribute the new attribute
+     */
+    public void setAttribute(Attribute attribute) {
+        Attribute previous = attributes.put(attribute.getType(), attribute);
+        if (previous == null || !attributeEquals(previous, attribute)) {
+            dirtyAttributes |= 1L << attribute.getType().ordinal();
+        }
+    }
+
+    /**
+     * Marks all attributes to be sent again, used when the client has reset this entity
+     */
+    public void invalidateBedrockAttributes() {
+        for (AttributeType type : attributes.keySet()) {
+            dirtyAttributes |= 1L << type.ordinal();
+        }
+    }
+
+    /**
+     * Sends the attributes that changed since they were last sent, or nothing if none changed
+     *
+     * @param session the session to send the attributes to
+     */
     public void updateBedrockAttributes(GeyserSession session) {
-        if (!valid) return;
+        if (!valid || dirtyAttributes == 0) return;
 
         List<com.nukkitx.protocol.bedrock.data.Attribute> attributes = new ArrayList<>();
-        for (Map.Entry<AttributeType, Attribute> entry : this.attributes.entrySet()) {
-            if (!entry.getValue().getType().isBedrockAttribute())
+        for (Attribute attribute : this.attributes.values()) {
+            if ((dirtyAttributes & (1L << attribute.getType().ordinal())) == 0 || !attribute.getType().isBedrockAttribute())
                 continue;
 
-            attributes.add(AttributeUtils.getBedrockAttribute(entry.getValue()));
+            attributes.add(AttributeUtils.getBedrockAttribute(attribute));
         }
+        dirtyAttributes = 0;
+        if (attributes.isEmpty()) return;
 
         UpdateAttributesPacket updateAttributesPacket = new UpdateAttributesPacket();
         updateAttributesPacket.setRuntimeEntityId(geyserId);
@@ -186,6 +247,13 @@ public class Entity {
         session.getUpstream().sendPacket(updateAttributesPacket);
     }
 
+    private static boolean attributeEquals(Attribute attribute, Attribute otherAttribute) {
+        return Float.compare(attribute.getValue(), otherAttribute.getValue()) == 0
+                && Float.compare(attribute.getMinimum(), otherAttribute.getMinimum()) == 0
+                && Float.compare(attribute.getMaximum(), otherAttribute.getMaximum()) == 0
+                && Float.compare(attribute.getDefaultValue(), otherAttribute.getDefaultValue()) == 0;
+    }
+
     public void updateBedrockMetadata(EntityMetadata entityMetadata, GeyserSession session) {
         switch (entityMetadata.getId()) {
             case 0:
@@ -219,17 +287,109 @@ public class Entity {
                 metadata.getFlags().setFlag(EntityFlag.HAS_GRAVITY, !(boolean) entityMetadata.getValue());
                 break;
         }
-
-        updateBedrockMetadata(session);
     }
 
+    /**
+     * Sends the metadata that changed since it was last sent, if this entity is spawned and in range
+     *
+     * @param session the session to send the metadata to
+     */
     public void updateBedrockMetadata(GeyserSession session) {
         if (!valid) return;
+        if (session.getEntityCache().getInterestManager().deferMetadata(this)) return;
 
+        sendBedrockMetadata(session);
+    }
+
+    /**
+     * Sends the metadata that changed since it was last sent in a single packet, or nothing if none changed
+     *
+     * @param session the session to send the metadata to
+     */
+    public void sendBedrockMetadata(GeyserSession session) {
         SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
         entityDataPacket.setRuntimeEntityId(geyserId);
-        entityDataPacket.getMetadata().putAll(metadata);
-        session.getUpstream().sendPacket(entityDataPacket);
+        EntityDataMap changedMetadata = entityDataPacket.getMetadata();
+
+        for (Map.Entry<EntityData, Object> entry : metadata.entrySet()) {
+            if (entry.getKey() == EntityData.FLAGS) {
+                continue;
+            }
+            if (!Objects.equals(entry.getValue(), sentMetadata.get(entry.getKey()))) {
+                changedMetadata.put(entry.getKey(), entry.getValue());
+                sentMetadata.put(entry.getKey(), entry.getValue());
+            }
+        }
+        sentMetadata.keySet().retainAll(metadata.keySet());
+
+        EntityFlags flags = metadata.getFlags();
+        if (flags != null && !flagsEqual(flags, sentFlags)) {
+            // Flags are sent as a whole
+            changedMetadata.putFlags(flags);
+            sentFlags = copyFlags(flags);
+        }
+
+        if (!changedMetadata.isEmpty()) {
+            session.getUpstream().sendPacket(entityDataPacket);
+        }
+    }
+
+    /**
+     * Forgets the metadata the client has, so that all metadata is sent next time.
+     * Used when the client has reset this entity, such as on respawn.
+     */
+    public void invalidateBedrockMetadata() {
+        sentMetadata.clear();
+        sentFlags = null;
+    }
+
+    /**
+     * Forgets the value of one metadata key the client has, so that it is sent next time
+     *
+     * @param key the metadata key to send again
+     */
+    public void invalidateBedrockMetadata(EntityData key) {
+        if (key == EntityData.FLAGS) {
+            sentFlags = null;
+        } else {
+            sentMetadata.remove(key);
+        }
+    }
+
+    /**
+     * Marks all current metadata as sent, used when a spawn packet carried all metadata
+     */
+    protected void markBedrockMetadataSent() {
+        sentMetadata.clear();
+        for (Map.Entry<EntityData, Object> entry : metadata.entrySet()) {
+            if (entry.getKey() != EntityData.FLAGS) {
+                sentMetadata.put(entry.getKey(), entry.getValue());
+            }
+        }
+        EntityFlags flags = metadata.getFlags();
+        sentFlags = flags == null ? null : copyFlags(flags);
+    }
+
+    private static boolean flagsEqual(EntityFlags flags, EntityFlags otherFlags) {
+        if (otherFlags == null) {
+            return false;
+        }
+        for (EntityFlag flag : ENTITY_FLAGS) {
+            if (flags.getFlag(flag) != otherFlags.getFlag(flag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static EntityFlags copyFlags(EntityFlags flags) {
+        EntityFlags copy = new EntityFlags();
+        for (EntityFlag flag : ENTITY_FLAGS) {
+            if (flags.getFlag(flag)) {
+                copy.setFlag(flag, true);
+            }
+        }
+        return copy;
     }
 
     /**
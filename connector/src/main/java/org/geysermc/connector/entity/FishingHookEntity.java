@@ -47,6 +47,7 @@ public class FishingHookEntity extends Entity {
         addEntityPacket.setRotation(getBedrockRotation());
         addEntityPacket.setEntityType(entityType.getType());
         addEntityPacket.getMetadata().putAll(metadata);
+        markBedrockMetadataSent();
 
         valid = true;
         session.getUpstream().sendPacket(addEntityPacket);
@@ -89,11 +89,13 @@ public class PlayerEntity extends LivingEntity {
         addPlayerPacket.setDeviceId("");
         addPlayerPacket.setPlatformChatId("");
         addPlayerPacket.getMetadata().putAll(metadata);
+        markBedrockMetadataSent();
 
         valid = true;
         session.getUpstream().sendPacket(addPlayerPacket);
 
         updateEquipment(session);
+        invalidateBedrockAttributes();
         updateBedrockAttributes(session);
     }
 
@@ -125,31 +127,14 @@ public class PlayerEntity extends LivingEntity {
     }
 
     @Override
-    public void moveAbsolute(GeyserSession session, Vector3f position, Vector3f rotation, boolean isOnGround) {
-        setPosition(position);
-        setRotation(rotation);
-
-        MovePlayerPacket movePlayerPacket = new MovePlayerPacket();
-        movePlayerPacket.setRuntimeEntityId(geyserId);
-        movePlayerPacket.setPosition(this.position);
-        movePlayerPacket.setRotation(getBedrockRotation());
-        movePlayerPacket.setOnGround(isOnGround);
-        movePlayerPacket.setMode(MovePlayerPacket.Mode.NORMAL);
-
-        session.getUpstream().sendPacket(movePlayerPacket);
-    }
-
-    @Override
-    public void moveRelative(GeyserSession session, double relX, double relY, double relZ, Vector3f rotation, boolean isOnGround) {
-        setRotation(rotation);
-        this.position = Vector3f.from(position.getX() + relX, position.getY() + relY, position.getZ() + relZ);
-
+    public void sendMovement(GeyserSession session) {
         MovePlayerPacket movePlayerPacket = new MovePlayerPacket();
         movePlayerPacket.setRuntimeEntityId(geyserId);
         movePlayerPacket.setPosition(position);
         movePlayerPacket.setRotation(getBedrockRotation());
-        movePlayerPacket.setOnGround(isOnGround);
+        movePlayerPacket.setOnGround(onGround);
         movePlayerPacket.setMode(MovePlayerPacket.Mode.NORMAL);
+
         session.getUpstream().sendPacket(movePlayerPacket);
     }
 
@@ -49,6 +49,7 @@ public class TraderLlamaEntity extends LlamaEntity {
         addEntityPacket.setRotation(getBedrockRotation());
         addEntityPacket.setEntityType(entityType.getType());
         addEntityPacket.getMetadata().putAll(metadata);
+        markBedrockMetadataSent();
         // Here's the difference
         addEntityPacket.getMetadata().put(EntityData.MARK_VARIANT, 1);
 
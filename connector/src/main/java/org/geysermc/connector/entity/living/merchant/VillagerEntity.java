@@ -98,6 +98,7 @@ public class VillagerEntity extends AbstractMerchantEntity {
         addEntityPacket.setRotation(getBedrockRotation());
         addEntityPacket.setEntityType(entityType.getType());
         addEntityPacket.getMetadata().putAll(metadata);
+        markBedrockMetadataSent();
 
         valid = true;
         session.getUpstream().sendPacket(addEntityPacket);
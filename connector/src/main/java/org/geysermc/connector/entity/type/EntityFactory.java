@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.entity.type;
+
+import com.nukkitx.math.vector.Vector3f;
+import org.geysermc.connector.entity.Entity;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates entities of an {@link EntityType} without looking up their constructor every time
+ */
+@FunctionalInterface
+public interface EntityFactory {
+
+    Entity create(long entityId, long geyserId, EntityType entityType, Vector3f position, Vector3f motion, Vector3f rotation);
+
+    /**
+     * Creates a factory that calls the constructor of an entity class taking the same arguments
+     * as {@link #create(long, long, EntityType, Vector3f, Vector3f, Vector3f)}
+     *
+     * @param entityClass the class of the entities to create
+     * @return the factory, or null if the class does not have such a constructor
+     */
+    static EntityFactory of(Class<? extends Entity> entityClass) {
+        MethodType createType = MethodType.methodType(Entity.class, long.class, long.class, EntityType.class,
+                Vector3f.class, Vector3f.class, Vector3f.class);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle constructor;
+        try {
+            constructor = lookup.findConstructor(entityClass, createType.changeReturnType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+
+        try {
+            // Equivalent to a constructor reference, so creating an entity is a plain constructor call
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "create", MethodType.methodType(EntityFactory.class),
+                    createType, constructor, constructor.type());
+            return (EntityFactory) callSite.getTarget().invoke();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create an entity factory for " + entityClass.getName(), t);
+        }
+    }
+}
@@ -150,6 +150,10 @@ public enum EntityType {
     BEE(BeeEntity.class, 122, 0.6f, 0.6f);
 
     private Class<? extends Entity> entityClass;
+    /**
+     * Creates entities of this type, null for types whose entities are created by their own translator
+     */
+    private EntityFactory factory;
     private final int type;
     private final float height;
     private final float width;
@@ -176,4 +180,10 @@ public enum EntityType {
         this.length = length;
         this.offset = offset + 0.00001f;
     }
+
+    static {
+        for (EntityType entityType : values()) {
+            entityType.factory = EntityFactory.of(entityType.entityClass);
+        }
+    }
 }
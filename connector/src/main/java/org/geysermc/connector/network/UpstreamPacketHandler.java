@@ -41,6 +41,15 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
     }
 
     private boolean translateAndDefault(BedrockPacket packet) {
+        if (session.getTranslationMailbox() != null) {
+            // Packets without a translator are left to the default handling
+            if (!Registry.BEDROCK.hasTranslator(packet.getClass())) {
+                return false;
+            }
+            // Translated later on the translation thread pool
+            session.execute(() -> Registry.BEDROCK.translate(packet.getClass(), packet, session));
+            return true;
+        }
         return Registry.BEDROCK.translate(packet.getClass(), packet, session);
     }
 
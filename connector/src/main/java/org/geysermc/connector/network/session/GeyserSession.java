@@ -49,6 +49,7 @@ import com.nukkitx.protocol.bedrock.data.GameRuleData;
 import com.nukkitx.protocol.bedrock.data.PlayerPermission;
 import com.nukkitx.protocol.bedrock.packet.*;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -75,7 +76,13 @@ import java.net.InetSocketAddress;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Getter
@@ -91,14 +98,35 @@ public class GeyserSession implements CommandSender {
     private PlayerEntity playerEntity;
     private PlayerInventory inventory;
 
+    private BlobCache blobCache;
     private ChunkCache chunkCache;
+    private ChunkSendQueue chunkSendQueue;
     private EntityCache entityCache;
+    private EntityMovementQueue entityMovementQueue;
     private InventoryCache inventoryCache;
     private ScoreboardCache scoreboardCache;
     private WindowCache windowCache;
 
     private DataCache<Packet> javaPacketCache;
 
+    /**
+     * Translates the packets of this session in order off the network threads, null when
+     * packets are translated on the network threads that received them
+     */
+    private TranslationMailbox translationMailbox;
+
+    /**
+     * Held while translation work runs on the network threads, so work from other threads
+     * does not run at the same time as packet translation
+     */
+    @Getter(AccessLevel.NONE)
+    private final Object translationLock = new Object();
+
+    /**
+     * Blocking work started for this session that has not finished yet
+     */
+    private final Set<Future<?>> blockingTasks = ConcurrentHashMap.newKeySet();
+
     @Setter
     private Vector2i lastChunkPosition = null;
     private int renderDistance;
@@ -129,8 +157,11 @@ public class GeyserSession implements CommandSender {
         this.connector = connector;
         this.upstream = new UpstreamSession(bedrockServerSession);
 
+        this.blobCache = new BlobCache(this);
         this.chunkCache = new ChunkCache(this);
+        this.chunkSendQueue = new ChunkSendQueue(this);
         this.entityCache = new EntityCache(this);
+        this.entityMovementQueue = new EntityMovementQueue(this);
         this.inventoryCache = new InventoryCache(this);
         this.scoreboardCache = new ScoreboardCache(this);
         this.windowCache = new WindowCache(this);
@@ -140,6 +171,10 @@ public class GeyserSession implements CommandSender {
 
         this.javaPacketCache = new DataCache<>();
 
+        if (connector.getTranslationThreadPool() != null) {
+            this.translationMailbox = new TranslationMailbox(this, connector.getTranslationThreadPool());
+        }
+
         this.spawned = false;
         this.loggedIn = false;
 
@@ -151,6 +186,8 @@ public class GeyserSession implements CommandSender {
         this.remoteServer = remoteServer;
 
         ChunkUtils.sendEmptyChunks(this, playerEntity.getPosition().toInt(), 0, false);
+        chunkSendQueue.start();
+        entityMovementQueue.start();
 
         BiomeDefinitionListPacket biomeDefinitionListPacket = new BiomeDefinitionListPacket();
         biomeDefinitionListPacket.setTag(Toolbox.BIOMES);
@@ -189,7 +226,7 @@ public class GeyserSession implements CommandSender {
 
         loggingIn = true;
         // new thread so clients don't timeout
-        new Thread(() -> {
+        runBlocking(() -> {
             try {
                 MinecraftProtocol protocol;
                 if (password != null && !password.isEmpty()) {
@@ -266,7 +303,7 @@ public class GeyserSession implements CommandSender {
                         }
 
                         // Download and load the language for the player
-                        LocaleUtils.downloadAndLoadLocale(locale);
+                        runBlocking(() -> LocaleUtils.downloadAndLoadLocale(locale), Runnable::run);
                     }
 
                     @Override
@@ -282,19 +319,22 @@ public class GeyserSession implements CommandSender {
 
                     @Override
                     public void packetReceived(PacketReceivedEvent event) {
-                        if (!closed) {
-                            //handle consecutive respawn packets
-                            if (event.getPacket().getClass().equals(ServerRespawnPacket.class)) {
-                                manyDimPackets = lastDimPacket != null;
-                                lastDimPacket = event.getPacket();
-                                return;
-                            } else if (lastDimPacket != null) {
-                                Registry.JAVA.translate(lastDimPacket.getClass(), lastDimPacket, GeyserSession.this);
-                                lastDimPacket = null;
+                        Packet packet = event.getPacket();
+                        execute(() -> {
+                            if (!closed) {
+                                //handle consecutive respawn packets
+                                if (packet.getClass().equals(ServerRespawnPacket.class)) {
+                                    manyDimPackets = lastDimPacket != null;
+                                    lastDimPacket = (ServerRespawnPacket) packet;
+                                    return;
+                                } else if (lastDimPacket != null) {
+                                    Registry.JAVA.translate(lastDimPacket.getClass(), lastDimPacket, GeyserSession.this);
+                                    lastDimPacket = null;
+                                }
+
+                                Registry.JAVA.translate(packet.getClass(), packet, GeyserSession.this);
                             }
-
-                            Registry.JAVA.translate(event.getPacket().getClass(), event.getPacket(), GeyserSession.this);
-                        }
+                        });
                     }
                 });
 
@@ -306,7 +346,7 @@ public class GeyserSession implements CommandSender {
             } catch (RequestException ex) {
                 ex.printStackTrace();
             }
-        }).start();
+        }, runnable -> new Thread(runnable).start());
     }
 
     public void disconnect(String reason) {
@@ -318,11 +358,72 @@ public class GeyserSession implements CommandSender {
             if (upstream != null && !upstream.isClosed()) {
                 upstream.disconnect(reason);
             }
+            chunkSendQueue.close();
+            blobCache.clear();
+            entityMovementQueue.close();
+            if (translationMailbox != null) {
+                translationMailbox.close();
+            }
+            for (Future<?> task : blockingTasks) {
+                task.cancel(true);
+            }
         }
 
         closed = true;
     }
 
+    /**
+     * Runs work that blocks, such as web requests, for this session. The work is interrupted when
+     * the session disconnects.
+     *
+     * @param task the work to run
+     * @param fallback runs the work when virtual threads are disabled
+     */
+    public void runBlocking(Runnable task, Executor fallback) {
+        FutureTask<Void> future = new FutureTask<Void>(task, null) {
+            @Override
+            protected void setException(Throwable t) {
+                connector.getLogger().error("Error while running a task for " + authData.getName(), t);
+                super.setException(t);
+            }
+
+            @Override
+            protected void done() {
+                blockingTasks.remove(this);
+            }
+        };
+        blockingTasks.add(future);
+        if (closed) {
+            future.cancel(false);
+            return;
+        }
+
+        Executor executor = connector.getVirtualThreadExecutor() != null ? connector.getVirtualThreadExecutor() : fallback;
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            // Geyser is shutting down
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Runs translation work for this session. The work runs in order with every packet
+     * of this session, on the translation thread pool when it is enabled. Otherwise it runs
+     * straight away, but never at the same time as other translation work of this session.
+     *
+     * @param task the work to run
+     */
+    public void execute(Runnable task) {
+        if (translationMailbox != null) {
+            translationMailbox.execute(task);
+        } else {
+            synchronized (translationLock) {
+                task.run();
+            }
+        }
+    }
+
     public void close() {
         disconnect("Server closed.");
     }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.session;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the translation work of a single session one task at a time and in submission order,
+ * on a thread pool shared by every session.
+ */
+public class TranslationMailbox implements Runnable {
+
+    /**
+     * The maximum amount of tasks run before the thread is handed to other sessions
+     */
+    private static final int TASKS_PER_RUN = 64;
+
+    private final GeyserSession session;
+    private final Executor executor;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public TranslationMailbox(GeyserSession session, Executor executor) {
+        this.session = session;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a task to run after every task queued before it
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        if (closed) {
+            return;
+        }
+        tasks.add(task);
+        depth.incrementAndGet();
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // The pool is shutting down
+                scheduled.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < TASKS_PER_RUN; i++) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            depth.decrementAndGet();
+            if (closed) {
+                continue;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                session.getConnector().getLogger().error("Error while translating packets for " + session.getName(), t);
+            }
+        }
+
+        scheduled.set(false);
+        // A task may have been queued after the last poll but before the flag was cleared
+        if (!tasks.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Drops every queued task and ignores any task queued afterwards
+     */
+    public void close() {
+        closed = true;
+        while (tasks.poll() != null) {
+            depth.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the amount of tasks waiting to run
+     *
+     * @return the mailbox depth
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+}
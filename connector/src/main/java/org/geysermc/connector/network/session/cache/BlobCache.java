@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.session.cache;
+
+import com.nukkitx.protocol.bedrock.packet.ClientCacheMissResponsePacket;
+import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import lombok.Getter;
+import lombok.Setter;
+import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.utils.ChunkUtils;
+import org.geysermc.connector.world.chunk.CachedColumn;
+import org.geysermc.connector.world.chunk.ChunkPayloadCache;
+
+/**
+ * Keeps track of the client-side blob cache of a Bedrock client.
+ * Chunks are sent as a list of blob IDs, and the client then reports which blobs it is missing.
+ */
+public class BlobCache {
+
+    /**
+     * Maximum amount of blobs waiting for the client to report their status. Every pending blob
+     * keeps the chunk it was sent with in memory.
+     */
+    private static final int MAX_PENDING_BLOBS = 4096;
+
+    /**
+     * Maximum amount of evicted blobs to remember the chunk of
+     */
+    private static final int MAX_EVICTED_BLOBS = 16384;
+
+    private GeyserSession session;
+
+    @Getter
+    @Setter
+    private boolean supported;
+
+    /**
+     * Blobs the client has not reported the status of yet, oldest first
+     */
+    private final Long2ObjectLinkedOpenHashMap<PendingBlob> pendingBlobs = new Long2ObjectLinkedOpenHashMap<>();
+
+    /**
+     * The chunk position of blobs that were dropped before the client reported them, so the
+     * chunk can be sent again without the blob cache if the client is missing the blob
+     */
+    private final Long2LongLinkedOpenHashMap evictedBlobs = new Long2LongLinkedOpenHashMap();
+
+    public BlobCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Fills in the blob IDs and remaining data of a chunk, and remembers the blobs
+     * until the client reports whether it has them.
+     *
+     * @param packet the packet to send the chunk with
+     * @param chunkX the X coordinate of the chunk
+     * @param chunkZ the Z coordinate of the chunk
+     * @param chunk the encoded chunk
+     */
+    public void writeChunk(LevelChunkPacket packet, int chunkX, int chunkZ, ChunkPayloadCache.CachedChunk chunk) {
+        long[] blobIds = chunk.getBlobIds();
+        long chunkKey = chunkKey(chunkX, chunkZ);
+        // The client reports a blob once per chunk, even if several sub chunks are the same
+        LongSet chunkBlobs = new LongOpenHashSet(blobIds.length);
+
+        synchronized (pendingBlobs) {
+            for (int i = 0; i < blobIds.length; i++) {
+                packet.getBlobIds().add(blobIds[i]);
+                if (!chunkBlobs.add(blobIds[i])) {
+                    continue;
+                }
+
+                PendingBlob pendingBlob = pendingBlobs.getAndMoveToLast(blobIds[i]);
+                if (pendingBlob == null) {
+                    // The blob is kept as a reference to the shared chunk, not as a copy
+                    pendingBlobs.putAndMoveToLast(blobIds[i], new PendingBlob(chunk, i, chunkKey));
+                    evictedBlobs.remove(blobIds[i]);
+                } else {
+                    pendingBlob.chunkKey = chunkKey;
+                    pendingBlob.references++;
+                }
+            }
+
+            while (pendingBlobs.size() > MAX_PENDING_BLOBS) {
+                long blobId = pendingBlobs.firstLongKey();
+                evictedBlobs.putAndMoveToLast(blobId, pendingBlobs.removeFirst().chunkKey);
+            }
+            while (evictedBlobs.size() > MAX_EVICTED_BLOBS) {
+                evictedBlobs.removeFirstLong();
+            }
+        }
+
+        packet.setCachingEnabled(true);
+        packet.setData(chunk.getNonBlobData());
+    }
+
+    /**
+     * Sends the blobs the client is missing, and forgets the blobs the client has reported.
+     * Chunks of missing blobs that were already dropped are sent again without the blob cache.
+     *
+     * @param acks the blobs the client has in its cache
+     * @param naks the blobs the client is missing
+     */
+    public void handleBlobStatus(LongList acks, LongList naks) {
+        ClientCacheMissResponsePacket missResponsePacket = new ClientCacheMissResponsePacket();
+        LongSet resendChunks = null;
+
+        synchronized (pendingBlobs) {
+            for (int i = 0; i < naks.size(); i++) {
+                long blobId = naks.getLong(i);
+                PendingBlob pendingBlob = release(blobId);
+                if (pendingBlob != null) {
+                    missResponsePacket.getBlobs().put(blobId, pendingBlob.chunk.getBlob(pendingBlob.index));
+                } else if (evictedBlobs.containsKey(blobId)) {
+                    if (resendChunks == null) {
+                        resendChunks = new LongOpenHashSet();
+                    }
+                    resendChunks.add(evictedBlobs.remove(blobId));
+                } else {
+                    session.getConnector().getLogger().debug("Client requested unknown blob " + blobId);
+                }
+            }
+
+            for (int i = 0; i < acks.size(); i++) {
+                long blobId = acks.getLong(i);
+                release(blobId);
+                evictedBlobs.remove(blobId);
+            }
+        }
+
+        if (!missResponsePacket.getBlobs().isEmpty()) {
+            session.getUpstream().sendPacket(missResponsePacket);
+        }
+
+        if (resendChunks != null) {
+            for (LongIterator iterator = resendChunks.iterator(); iterator.hasNext(); ) {
+                long chunkKey = iterator.nextLong();
+                CachedColumn column = session.getChunkCache().getColumn((int) (chunkKey >> 32), (int) chunkKey);
+                if (column != null) {
+                    ChunkUtils.queueColumn(session, column, false);
+                }
+            }
+        }
+    }
+
+    private PendingBlob release(long blobId) {
+        PendingBlob pendingBlob = pendingBlobs.get(blobId);
+        if (pendingBlob != null && --pendingBlob.references == 0) {
+            pendingBlobs.remove(blobId);
+        }
+        return pendingBlob;
+    }
+
+    /**
+     * Forgets every blob, used when the chunks of the client are dropped such as on dimension change
+     */
+    public void clear() {
+        synchronized (pendingBlobs) {
+            pendingBlobs.clear();
+            evictedBlobs.clear();
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static final class PendingBlob {
+        private final ChunkPayloadCache.CachedChunk chunk;
+        private final int index;
+
+        /**
+         * The position of the last chunk sent with this blob
+         */
+        private long chunkKey;
+
+        /**
+         * The amount of sent chunks containing this blob that the client has not reported yet
+         */
+        private int references = 1;
+
+        private PendingBlob(ChunkPayloadCache.CachedChunk chunk, int index, long chunkKey) {
+            this.chunk = chunk;
+            this.index = index;
+            this.chunkKey = chunkKey;
+        }
+    }
+}
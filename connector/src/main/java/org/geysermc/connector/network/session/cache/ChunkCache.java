@@ -25,84 +25,168 @@
 
 package org.geysermc.connector.network.session.cache;
 
-import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
 import com.github.steveice10.mc.protocol.data.game.chunk.Column;
 import com.github.steveice10.mc.protocol.data.game.entity.metadata.Position;
 import com.github.steveice10.mc.protocol.data.game.world.block.BlockState;
-import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
-import lombok.Getter;
+import com.nukkitx.math.vector.Vector3i;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.Translators;
 import org.geysermc.connector.network.translators.block.BlockTranslator;
+import org.geysermc.connector.utils.ChunkUtils;
+import org.geysermc.connector.world.chunk.CachedColumn;
 import org.geysermc.connector.world.chunk.ChunkPosition;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Keeps a compact copy of every column loaded by the Java server, so the blocks around
+ * a player can be looked up.
+ */
 public class ChunkCache {
 
     private GeyserSession session;
 
-    @Getter
-    private Map<ChunkPosition, Column> chunks;
+    private final Long2ObjectMap<CachedColumn> chunks = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
+
+    /**
+     * Block update packets that were not sent because the client would not see a difference
+     */
+    private final AtomicLong suppressedBlockUpdates = new AtomicLong();
 
     public ChunkCache(GeyserSession session) {
         this.session = session;
-        this.chunks = new HashMap<>();
     }
 
-    public void addToCache(Column chunk) {
-        ChunkPosition position = new ChunkPosition(chunk.getX(), chunk.getZ());
-        chunks.put(position, chunk);
+    /**
+     * Copies a full Java column into the cache, replacing any column at the same position
+     *
+     * @param chunk the Java column
+     * @return the cached copy of the column
+     */
+    public CachedColumn addToCache(Column chunk) {
+        CachedColumn column = CachedColumn.fromJava(chunk);
+        chunks.put(chunkKey(chunk.getX(), chunk.getZ()), column);
+        return column;
     }
 
-    public void updateBlock(Position position, BlockState block) {
-        ChunkPosition chunkPosition = new ChunkPosition(position.getX() >> 4, position.getZ() >> 4);
-        if (!chunks.containsKey(chunkPosition))
-            return;
+    /**
+     * Copies the sections of a non-full Java column into the cached column at the same position
+     *
+     * @param chunk the non-full Java column
+     * @return the updated cached column, or null if the column is not cached
+     */
+    public CachedColumn mergeIntoCache(Column chunk) {
+        CachedColumn column = getColumn(chunk.getX(), chunk.getZ());
+        if (column == null)
+            return null;
+
+        synchronized (column) {
+            column.merge(chunk);
+        }
+        return column;
+    }
 
-        Column column = chunks.get(chunkPosition);
-        Chunk chunk = column.getChunks()[position.getY() >> 4];
-        Position blockPosition = chunkPosition.getChunkBlock(position.getX(), position.getY(), position.getZ());
-        if (chunk != null) {
-            chunk.set(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ(), block);
+    public BlockState updateBlock(Position position, BlockState block) {
+        return updateBlock(Vector3i.from(position.getX(), position.getY(), position.getZ()), block);
+    }
+
+    /**
+     * Changes a block in a cached column
+     *
+     * @param position the position of the block
+     * @param block the new block state
+     * @return the previous block state, or null if the column is not cached
+     */
+    public BlockState updateBlock(Vector3i position, BlockState block) {
+        CachedColumn column = getColumn(position.getX() >> 4, position.getZ() >> 4);
+        if (column == null)
+            return null;
+
+        int previous;
+        // Columns are read by the chunk threads while they are translated
+        synchronized (column) {
+            previous = column.setBlock(position.getX() & 15, position.getY(), position.getZ() & 15, block.getId());
         }
+        return previous == block.getId() ? block : new BlockState(previous);
     }
 
     public BlockState getBlockAt(Position position) {
-        ChunkPosition chunkPosition = new ChunkPosition(position.getX() >> 4, position.getZ() >> 4);
-        if (!chunks.containsKey(chunkPosition))
+        CachedColumn column = getColumn(position.getX() >> 4, position.getZ() >> 4);
+        if (column == null)
             return BlockTranslator.AIR;
 
-        Column column = chunks.get(chunkPosition);
-        Chunk chunk = column.getChunks()[position.getY() >> 4];
-        Position blockPosition = chunkPosition.getChunkBlock(position.getX(), position.getY(), position.getZ());
-        if (chunk != null) {
-            return chunk.get(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+        int javaId;
+        synchronized (column) {
+            javaId = column.getBlock(position.getX() & 15, position.getY(), position.getZ() & 15);
         }
+        return javaId == BlockTranslator.AIR.getId() ? BlockTranslator.AIR : new BlockState(javaId);
+    }
 
-        return BlockTranslator.AIR;
+    /**
+     * Gets a cached column
+     *
+     * @param chunkX the X coordinate of the column
+     * @param chunkZ the Z coordinate of the column
+     * @return the column, or null if it is not cached
+     */
+    public CachedColumn getColumn(int chunkX, int chunkZ) {
+        return chunks.get(chunkKey(chunkX, chunkZ));
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Gets a rough estimate of the heap memory used by the cached columns of this session
+     *
+     * @return the memory used in bytes
+     */
+    public long getMemoryUsage() {
+        long size = 0;
+        synchronized (chunks) {
+            for (CachedColumn column : chunks.values()) {
+                synchronized (column) {
+                    size += column.getMemoryUsage();
+                }
+            }
+        }
+        return size;
+    }
+
+    public void addSuppressedBlockUpdates(int count) {
+        suppressedBlockUpdates.addAndGet(count);
+    }
+
+    public long getSuppressedBlockUpdates() {
+        return suppressedBlockUpdates.get();
     }
 
     public void removeChunk(ChunkPosition position) {
-        chunks.remove(position);
+        chunks.remove(chunkKey(position.getX(), position.getZ()));
+        session.getChunkSendQueue().remove(position.getX(), position.getZ());
         sendEmptyChunk(position, true);
     }
 
+    public void clear() {
+        chunks.clear();
+    }
+
     public void sendEmptyChunk(ChunkPosition position) {
         sendEmptyChunk(position, false);
     }
 
     public void sendEmptyChunk(ChunkPosition position, boolean force) {
-        if (!force && chunks.containsKey(position))
+        if (!force && chunks.containsKey(chunkKey(position.getX(), position.getZ())))
             return;
 
-        LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-        levelChunkPacket.setChunkX(position.getX());
-        levelChunkPacket.setChunkZ(position.getZ());
-        levelChunkPacket.setCachingEnabled(false);
-        levelChunkPacket.setSubChunksLength(0);
-        levelChunkPacket.setData(Translators.EMPTY_LEVEL_CHUNK_DATA);
-        session.getUpstream().sendPacket(levelChunkPacket);
+        ChunkUtils.sendChunk(session, position.getX(), position.getZ(), Translators.EMPTY_LEVEL_CHUNK);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
     }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.session.cache;
+
+import com.nukkitx.math.vector.Vector2i;
+import com.nukkitx.math.vector.Vector3i;
+import com.nukkitx.protocol.bedrock.BedrockPacket;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.geysermc.connector.network.session.GeyserSession;
+import org.geysermc.connector.utils.ChunkUtils;
+import org.geysermc.connector.world.chunk.ChunkPayloadCache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Chunks of a session are translated in parallel on the chunk thread pool, and are then
+ * sent every tick nearest-first, within the configured chunk send budget.
+ */
+public class ChunkSendQueue {
+
+    private GeyserSession session;
+
+    private final Long2ObjectMap<PendingChunk> pendingChunks = new Long2ObjectOpenHashMap<>();
+    private ScheduledFuture<?> tickFuture;
+
+    public ChunkSendQueue(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Starts sending translated chunks every tick
+     */
+    public void start() {
+        if (tickFuture == null) {
+            tickFuture = session.getConnector().getGeneralThreadPool().scheduleAtFixedRate(this::tick, 50, 50, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queues a chunk to be translated on the chunk thread pool. Any chunk at the same position
+     * that has not been sent yet is replaced, and its held back packets are sent after the new chunk.
+     *
+     * @param chunkX the X coordinate of the chunk
+     * @param chunkZ the Z coordinate of the chunk
+     * @param useBlobCache if the client blob cache may be used to send the chunk
+     * @param translator translates the chunk, called from a chunk thread
+     */
+    public void submit(int chunkX, int chunkZ, boolean useBlobCache, Supplier<ChunkPayloadCache.CachedChunk> translator) {
+        PendingChunk pendingChunk = new PendingChunk(chunkX, chunkZ, useBlobCache);
+        synchronized (pendingChunks) {
+            PendingChunk previous = pendingChunks.put(chunkKey(chunkX, chunkZ), pendingChunk);
+            if (previous != null) {
+                pendingChunk.deferredPackets.addAll(previous.deferredPackets);
+            }
+        }
+
+        CompletableFuture.supplyAsync(translator, session.getConnector().getChunkThreadPool()).whenComplete((chunk, throwable) -> {
+            if (throwable != null) {
+                session.getConnector().getLogger().error("Could not translate chunk " + chunkX + ", " + chunkZ, throwable);
+            }
+            pendingChunk.chunk = chunk;
+            pendingChunk.done = true;
+        });
+    }
+
+    /**
+     * Drops a chunk that has not been sent yet, used when the chunk is unloaded
+     *
+     * @param chunkX the X coordinate of the chunk
+     * @param chunkZ the Z coordinate of the chunk
+     */
+    public void remove(int chunkX, int chunkZ) {
+        synchronized (pendingChunks) {
+            pendingChunks.remove(chunkKey(chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Sends packets that change a chunk, or holds them back until the chunk itself
+     * has been sent if the chunk is still queued
+     *
+     * @param chunkX the X coordinate of the chunk the packets change
+     * @param chunkZ the Z coordinate of the chunk the packets change
+     * @param packets the packets to send, in order
+     */
+    public void sendAfterChunk(int chunkX, int chunkZ, List<BedrockPacket> packets) {
+        synchronized (pendingChunks) {
+            PendingChunk pendingChunk = pendingChunks.get(chunkKey(chunkX, chunkZ));
+            if (pendingChunk != null) {
+                pendingChunk.deferredPackets.addAll(packets);
+                return;
+            }
+        }
+        for (BedrockPacket packet : packets) {
+            session.getUpstream().sendPacket(packet);
+        }
+    }
+
+    private void tick() {
+        try {
+            Vector2i center = session.getLastChunkPosition();
+            if (center == null) {
+                Vector3i position = session.getPlayerEntity().getPosition().toInt();
+                center = Vector2i.from(position.getX() >> 4, position.getZ() >> 4);
+            }
+            int centerX = center.getX();
+            int centerZ = center.getY();
+
+            synchronized (pendingChunks) {
+                if (pendingChunks.isEmpty()) {
+                    return;
+                }
+
+                List<PendingChunk> readyChunks = new ArrayList<>();
+                for (PendingChunk pendingChunk : pendingChunks.values()) {
+                    if (pendingChunk.done) {
+                        readyChunks.add(pendingChunk);
+                    }
+                }
+                readyChunks.sort(Comparator.comparingInt(chunk -> chunk.distanceSquared(centerX, centerZ)));
+
+                int budget = session.getConnector().getConfig().getChunkSendBudget();
+                int sentBytes = 0;
+                for (PendingChunk pendingChunk : readyChunks) {
+                    if (pendingChunk.chunk != null) {
+                        int size = ChunkUtils.getSentSize(session, pendingChunk.chunk, pendingChunk.useBlobCache);
+                        // Always send at least one chunk so that chunks larger than the budget are not stuck
+                        if (budget > 0 && sentBytes > 0 && sentBytes + size > budget) {
+                            break;
+                        }
+                        ChunkUtils.sendChunk(session, pendingChunk.chunkX, pendingChunk.chunkZ, pendingChunk.chunk, pendingChunk.useBlobCache);
+                        sentBytes += size;
+                    }
+
+                    pendingChunks.remove(chunkKey(pendingChunk.chunkX, pendingChunk.chunkZ));
+                    for (BedrockPacket packet : pendingChunk.deferredPackets) {
+                        session.getUpstream().sendPacket(packet);
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            session.getConnector().getLogger().error("Error while sending chunks", t);
+        }
+    }
+
+    /**
+     * Drops every queued chunk and stops sending chunks
+     */
+    public void close() {
+        clear();
+        if (tickFuture != null) {
+            tickFuture.cancel(false);
+            tickFuture = null;
+        }
+    }
+
+    public void clear() {
+        synchronized (pendingChunks) {
+            pendingChunks.clear();
+        }
+    }
+
+    /**
+     * Gets the amount of chunks of this session that are being translated or waiting to be sent
+     *
+     * @return the amount of pending chunks
+     */
+    public int size() {
+        synchronized (pendingChunks) {
+            return pendingChunks.size();
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static final class PendingChunk {
+        private final int chunkX;
+        private final int chunkZ;
+        private final boolean useBlobCache;
+        private final List<BedrockPacket> deferredPackets = new ArrayList<>();
+
+        private volatile ChunkPayloadCache.CachedChunk chunk;
+        private volatile boolean done;
+
+        private PendingChunk(int chunkX, int chunkZ, boolean useBlobCache) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.useBlobCache = useBlobCache;
+        }
+
+        private int distanceSquared(int x, int z) {
+            int dx = chunkX - x;
+            int dz = chunkZ - z;
+            return dx * dx + dz * dz;
+        }
+    }
+}
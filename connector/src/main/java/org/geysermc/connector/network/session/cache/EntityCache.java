@@ -53,8 +53,12 @@ public class EntityCache {
     @Getter
     private AtomicLong nextEntityId = new AtomicLong(2L);
 
+    @Getter
+    private EntityInterestManager interestManager;
+
     public EntityCache(GeyserSession session) {
         this.session = session;
+        this.interestManager = new EntityInterestManager(session);
     }
 
     public void spawnEntity(Entity entity) {
@@ -71,6 +75,8 @@ public class EntityCache {
         if (entity != null && entity.isValid() && (force || entity.despawnEntity(session))) {
             long geyserId = entityIdTranslations.remove(entity.getEntityId());
             entities.remove(geyserId);
+            session.getEntityMovementQueue().remove(geyserId);
+            interestManager.remove(geyserId);
             if (entity.is(PlayerEntity.class)) {
                 playerEntities.remove(entity.as(PlayerEntity.class).getUuid());
             }
@@ -137,6 +143,7 @@ public class EntityCache {
     }
 
     public void clear() {
+        interestManager.clear();
         entities = null;
         entityIdTranslations = null;
         playerEntities = null;
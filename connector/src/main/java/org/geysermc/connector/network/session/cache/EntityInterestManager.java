@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.session.cache;
+
+import com.nukkitx.math.vector.Vector3f;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import org.geysermc.connector.entity.Entity;
+import org.geysermc.connector.network.session.GeyserSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts the entities of a session into update tiers by their distance to the player. Nearby entities
+ * are updated at full rate, entities further away less often, and entities outside the render distance
+ * not at all until they come back into range.
+ */
+public class EntityInterestManager {
+
+    /**
+     * Entities in the {@link UpdateTier#MID} tier have their movement sent every this many movement ticks
+     */
+    private static final int MID_TIER_INTERVAL = 4;
+
+    private GeyserSession session;
+
+    private final Long2ObjectMap<Entity> deferredMetadata = new Long2ObjectOpenHashMap<>();
+
+    public EntityInterestManager(GeyserSession session) {
+        this.session = session;
+    }
+
+    public UpdateTier getTier(Entity entity) {
+        int fullRateDistance = session.getConnector().getConfig().getFullRateEntityDistance();
+        if (fullRateDistance <= 0 || entity == session.getPlayerEntity() || !session.getEntityMovementQueue().isStarted()) {
+            return UpdateTier.NEAR;
+        }
+
+        Vector3f playerPosition = session.getPlayerEntity().getPosition();
+        float distanceSquared = playerPosition.distanceSquared(entity.getPosition());
+        if (distanceSquared <= fullRateDistance * fullRateDistance) {
+            return UpdateTier.NEAR;
+        }
+
+        int renderDistance = session.getRenderDistance() << 4;
+        if (renderDistance > 0 && distanceSquared > renderDistance * renderDistance) {
+            return UpdateTier.FAR;
+        }
+        return UpdateTier.MID;
+    }
+
+    public boolean isOutOfRange(Entity entity) {
+        return getTier(entity) == UpdateTier.FAR;
+    }
+
+    /**
+     * Checks if the movement of an entity should be sent on this movement tick
+     *
+     * @param entity the entity that moved
+     * @param tick the number of the movement tick
+     * @return true if the movement should be sent now, false if it should be held back
+     */
+    public boolean shouldSendMovement(Entity entity, long tick) {
+        switch (getTier(entity)) {
+            case NEAR:
+                return true;
+            case MID:
+                // Spread the entities of this tier over the ticks in between
+                return (tick + entity.getGeyserId()) % MID_TIER_INTERVAL == 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Holds back the metadata of an entity that is out of range, to be sent once it comes back into range
+     *
+     * @param entity the entity whose metadata changed
+     * @return true if the metadata was held back
+     */
+    public boolean deferMetadata(Entity entity) {
+        if (!isOutOfRange(entity)) {
+            return false;
+        }
+
+        synchronized (deferredMetadata) {
+            deferredMetadata.put(entity.getGeyserId(), entity);
+        }
+        return true;
+    }
+
+    /**
+     * Sends the held back metadata of every entity that came back into range. Must run in the
+     * translation context of the session, see {@link GeyserSession#execute(Runnable)}.
+     */
+    public void sendDeferredMetadata() {
+        List<Entity> entities = null;
+        synchronized (deferredMetadata) {
+            ObjectIterator<Entity> iterator = deferredMetadata.values().iterator();
+            while (iterator.hasNext()) {
+                Entity entity = iterator.next();
+                if (!entity.isValid()) {
+                    iterator.remove();
+                } else if (!isOutOfRange(entity)) {
+                    iterator.remove();
+                    if (entities == null) {
+                        entities = new ArrayList<>();
+                    }
+                    entities.add(entity);
+                }
+            }
+        }
+
+        if (entities != null) {
+            for (Entity entity : entities) {
+                entity.updateBedrockMetadata(session);
+            }
+        }
+    }
+
+    public void remove(long geyserId) {
+        synchronized (deferredMetadata) {
+            deferredMetadata.remove(geyserId);
+        }
+    }
+
+    public void clear() {
+        synchronized (deferredMetadata) {
+            deferredMetadata.clear();
+        }
+    }
+
+    public enum UpdateTier {
+        /**
+         * Close to the player, every update is sent
+         */
+        NEAR,
+        /**
+         * Within render distance, movement is sent less often
+         */
+        MID,
+        /**
+         * Outside render distance, updates are held back until the entity comes back into range
+         */
+        FAR
+    }
+}
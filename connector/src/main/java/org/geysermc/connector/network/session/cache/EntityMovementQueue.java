@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.session.cache;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import org.geysermc.connector.entity.Entity;
+import org.geysermc.connector.network.session.GeyserSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds back entity movement and sends the latest position and rotation of every entity that moved
+ * once per movement interval, instead of a packet for every Java movement packet. Entities further
+ * away from the player are sent less often, see {@link EntityInterestManager}.
+ */
+public class EntityMovementQueue {
+
+    private GeyserSession session;
+
+    private final Long2ObjectMap<Entity> movedEntities = new Long2ObjectLinkedOpenHashMap<>();
+    private ScheduledFuture<?> tickFuture;
+    private long tickCount;
+
+    /**
+     * If a batch of movement is waiting to be sent in the translation context of the session
+     */
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    public EntityMovementQueue(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Starts sending movement every movement interval. Until then, or if the interval is 0,
+     * movement is sent straight away.
+     */
+    public void start() {
+        int interval = session.getConnector().getConfig().getEntityMovementInterval();
+        if (tickFuture == null && interval > 0) {
+            tickFuture = session.getConnector().getGeneralThreadPool().scheduleAtFixedRate(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the current position and rotation of an entity with the next batch of movement.
+     * Movement of the player of this session is always sent straight away.
+     *
+     * @param entity the entity that moved
+     */
+    public void queue(Entity entity) {
+        if (tickFuture == null || entity == session.getPlayerEntity()) {
+            entity.sendMovement(session);
+            return;
+        }
+
+        synchronized (movedEntities) {
+            movedEntities.put(entity.getGeyserId(), entity);
+        }
+    }
+
+    /**
+     * Drops the pending movement of an entity, used when the entity is removed
+     *
+     * @param geyserId the Geyser ID of the entity
+     */
+    public void remove(long geyserId) {
+        synchronized (movedEntities) {
+            movedEntities.remove(geyserId);
+        }
+    }
+
+    private void tick() {
+        // Entities are only safe to read and send from the translation context of the session
+        if (flushQueued.compareAndSet(false, true)) {
+            session.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushQueued.set(false);
+        try {
+            EntityInterestManager interestManager = session.getEntityCache().getInterestManager();
+            long tick = tickCount++;
+
+            List<Entity> entities = null;
+            synchronized (movedEntities) {
+                ObjectIterator<Entity> iterator = movedEntities.values().iterator();
+                while (iterator.hasNext()) {
+                    Entity entity = iterator.next();
+                    if (!entity.isValid()) {
+                        iterator.remove();
+                    } else if (interestManager.shouldSendMovement(entity, tick)) {
+                        // Entities that are held back stay queued, so their latest position is sent once they are in range
+                        iterator.remove();
+                        if (entities == null) {
+                            entities = new ArrayList<>();
+                        }
+                        entities.add(entity);
+                    }
+                }
+            }
+
+            if (entities != null) {
+                for (Entity entity : entities) {
+                    entity.sendMovement(session);
+                }
+            }
+            interestManager.sendDeferredMetadata();
+        } catch (Throwable t) {
+            session.getConnector().getLogger().error("Error while sending entity movement", t);
+        }
+    }
+
+    public boolean isStarted() {
+        return tickFuture != null;
+    }
+
+    /**
+     * Drops all pending movement and stops sending movement
+     */
+    public void close() {
+        clear();
+        if (tickFuture != null) {
+            tickFuture.cancel(false);
+            tickFuture = null;
+        }
+    }
+
+    public void clear() {
+        synchronized (movedEntities) {
+            movedEntities.clear();
+        }
+    }
+}
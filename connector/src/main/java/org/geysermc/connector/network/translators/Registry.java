@@ -25,8 +25,12 @@
 
 package org.geysermc.connector.network.translators;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.network.session.GeyserSession;
@@ -34,35 +38,124 @@ import org.geysermc.connector.network.session.GeyserSession;
 import com.github.steveice10.packetlib.packet.Packet;
 import com.nukkitx.protocol.bedrock.BedrockPacket;
 
+import lombok.Getter;
+
 public class Registry<T> {
     private final Map<Class<? extends T>, PacketTranslator<? extends T>> MAP = new HashMap<>();
 
+    /**
+     * The translator and statistics of every packet class, resolved once per class
+     */
+    private final ClassValue<PacketStats> STATS = new ClassValue<PacketStats>() {
+        @Override
+        protected PacketStats computeValue(Class<?> type) {
+            // This may run more than once for a class at the same time, so every run has to return the same statistics
+            return SEEN_STATS.computeIfAbsent(type, packetClass -> new PacketStats(packetClass, MAP.get(packetClass)));
+        }
+    };
+    private final Map<Class<?>, PacketStats> SEEN_STATS = new ConcurrentHashMap<>();
+
     public static final Registry<Packet> JAVA = new Registry<>();
     public static final Registry<BedrockPacket> BEDROCK = new Registry<>();
 
     public static void registerJava(Class<? extends Packet> targetPacket, PacketTranslator<? extends Packet> translator) {
-        JAVA.MAP.put(targetPacket, translator);
+        JAVA.register(targetPacket, translator);
     }
 
     public static void registerBedrock(Class<? extends BedrockPacket> targetPacket, PacketTranslator<? extends BedrockPacket> translator) {
-        BEDROCK.MAP.put(targetPacket, translator);
+        BEDROCK.register(targetPacket, translator);
+    }
+
+    private void register(Class<? extends T> targetPacket, PacketTranslator<? extends T> translator) {
+        MAP.put(targetPacket, translator);
+        // Drop a translator that was resolved before this one was registered
+        STATS.remove(targetPacket);
+        SEEN_STATS.remove(targetPacket);
     }
 
     @SuppressWarnings("unchecked")
     public <P extends T> boolean translate(Class<? extends P> clazz, P packet, GeyserSession session) {
         if (!session.getUpstream().isClosed() && !session.isClosed()) {
+            PacketStats stats = STATS.get(clazz);
+            stats.count.increment();
+            if (stats.translator == null) {
+                GeyserConnector.getInstance().getLogger().debug("Could not find packet for " + packet.getClass().getSimpleName());
+                return false;
+            }
+
+            long startTime = System.nanoTime();
             try {
-                if (MAP.containsKey(clazz)) {
-                    ((PacketTranslator<P>) MAP.get(clazz)).translate(packet, session);
-                    return true;
-                } else {
-                    GeyserConnector.getInstance().getLogger().debug("Could not find packet for " + (packet.toString().length() > 25 ? packet.getClass().getSimpleName() : packet));
-                }
+                ((PacketTranslator<P>) stats.translator).translate(packet, session);
+                return true;
             } catch (Throwable ex) {
                 GeyserConnector.getInstance().getLogger().error("Could not translate packet " + packet.getClass().getSimpleName(), ex);
                 ex.printStackTrace();
+            } finally {
+                stats.nanos.add(System.nanoTime() - startTime);
             }
         }
         return false;
     }
+
+    /**
+     * Checks if a translator is registered for a packet class
+     *
+     * @param clazz the packet class
+     * @return if packets of the class are translated
+     */
+    public boolean hasTranslator(Class<? extends T> clazz) {
+        return STATS.get(clazz).isTranslated();
+    }
+
+    /**
+     * Gets the statistics of every packet class received so far
+     *
+     * @return the statistics of every received packet class
+     */
+    public List<PacketStats> getStats() {
+        return new ArrayList<>(SEEN_STATS.values());
+    }
+
+    public void resetStats() {
+        for (PacketStats stats : SEEN_STATS.values()) {
+            stats.count.reset();
+            stats.nanos.reset();
+        }
+    }
+
+    public static final class PacketStats {
+        @Getter
+        private final Class<?> packetClass;
+        private final PacketTranslator<?> translator;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private PacketStats(Class<?> packetClass, PacketTranslator<?> translator) {
+            this.packetClass = packetClass;
+            this.translator = translator;
+        }
+
+        public boolean isTranslated() {
+            return translator != null;
+        }
+
+        /**
+         * Gets the amount of packets of this class received
+         *
+         * @return the amount of received packets
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the total time spent translating packets of this class
+         *
+         * @return the translation time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+    }
 }
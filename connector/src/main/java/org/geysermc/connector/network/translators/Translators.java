@@ -33,6 +33,7 @@ import org.geysermc.connector.network.translators.block.BlockTranslator;
 import org.geysermc.connector.network.translators.inventory.GenericInventoryTranslator;
 import org.geysermc.connector.network.translators.inventory.InventoryTranslator;
 import org.geysermc.connector.network.translators.item.ItemTranslator;
+import org.geysermc.connector.world.chunk.ChunkPayloadCache;
 import org.reflections.Reflections;
 
 import com.github.steveice10.packetlib.packet.Packet;
@@ -52,8 +53,14 @@ public class Translators {
     @Getter
     private static InventoryTranslator inventoryTranslator = new GenericInventoryTranslator();
 
+    /**
+     * Generated at compile time by the translator annotation processor
+     */
+    private static final String GENERATED_REGISTRY = "org.geysermc.connector.network.translators.GeneratedTranslatorRegistry";
+
     private static final CompoundTag EMPTY_TAG = CompoundTagBuilder.builder().buildRootTag();
     public static final byte[] EMPTY_LEVEL_CHUNK_DATA;
+    public static final ChunkPayloadCache.CachedChunk EMPTY_LEVEL_CHUNK;
 
     static {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
@@ -64,13 +71,48 @@ public class Translators {
             }
 
             EMPTY_LEVEL_CHUNK_DATA = outputStream.toByteArray();
+            EMPTY_LEVEL_CHUNK = new ChunkPayloadCache.CachedChunk(0, EMPTY_LEVEL_CHUNK_DATA, new int[]{0});
         }catch (IOException e) {
             throw new AssertionError("Unable to generate empty level chunk data");
         }
     }
 
-    @SuppressWarnings("unchecked")
     public static void start() {
+        if (!registerGeneratedTranslators()) {
+            GeyserConnector.getInstance().getLogger().debug("No generated translator registry found, scanning for translators");
+            scanTranslators();
+        }
+
+        itemTranslator = new ItemTranslator();
+        BlockTranslator.init();
+
+        registerInventoryTranslators();
+    }
+
+    /**
+     * Registers the translators found by the annotation processor when Geyser was built
+     *
+     * @return false if there is no generated registry
+     */
+    private static boolean registerGeneratedTranslators() {
+        Class<?> registry;
+        try {
+            registry = Class.forName(GENERATED_REGISTRY);
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+
+        try {
+            registry.getMethod("registerAll").invoke(null);
+            return true;
+        } catch (ReflectiveOperationException e) {
+            GeyserConnector.getInstance().getLogger().error("Could not register generated translators", e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void scanTranslators() {
         Reflections ref = new Reflections("org.geysermc.connector.network.translators");
         
         for (Class<?> clazz : ref.getTypesAnnotatedWith(Translator.class)) {
@@ -98,11 +140,6 @@ public class Translators {
                 GeyserConnector.getInstance().getLogger().error("Could not instantiate annotated translator " + clazz.getCanonicalName() + ".");
             }
         }
-        
-        itemTranslator = new ItemTranslator();
-        BlockTranslator.init();
-
-        registerInventoryTranslators();
     }
 
     private static void registerInventoryTranslators() {
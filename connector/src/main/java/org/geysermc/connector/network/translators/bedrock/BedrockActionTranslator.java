@@ -122,6 +122,7 @@ public class BedrockActionTranslator extends PacketTranslator<PlayerActionPacket
                     PlayStatusPacket spawnPacket = new PlayStatusPacket();
                     spawnPacket.setStatus(PlayStatusPacket.Status.PLAYER_SPAWN);
                     session.getUpstream().sendPacket(spawnPacket);
+                    entity.invalidateBedrockAttributes();
                     entity.updateBedrockAttributes(session);
                     session.getEntityCache().updateBossBars();
                 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.block;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nukkitx.nbt.CompoundTagBuilder;
+import com.nukkitx.nbt.NbtUtils;
+import com.nukkitx.nbt.stream.NBTInputStream;
+import com.nukkitx.nbt.stream.NBTOutputStream;
+import com.nukkitx.nbt.tag.CompoundTag;
+import com.nukkitx.nbt.tag.ListTag;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The Java to Bedrock block mappings, built from the JSON mappings and the Bedrock block palette,
+ * or read back from their compiled form.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BlockMappings {
+
+    private static final int BLOCK_STATE_VERSION = 17760256;
+
+    /**
+     * The Bedrock block palette sent to the client
+     */
+    private final ListTag<CompoundTag> blocks;
+    private final int bedrockWaterId;
+
+    /**
+     * The Bedrock runtime ID of every Java block state
+     */
+    private final int[] javaToBedrock;
+    private final BitSet waterlogged;
+
+    /**
+     * The Java block state of every Bedrock runtime ID, or -1 if there is none
+     */
+    private final int[] bedrockToJava;
+    private final int[] bedrockToJavaWaterlogged;
+
+    /**
+     * Java block states that do not exist on Bedrock
+     */
+    private final List<String> missingMappings;
+
+    @SuppressWarnings("unchecked")
+    public static BlockMappings fromJson(InputStream runtimeStates, InputStream mappings) {
+        ListTag<CompoundTag> blocksTag;
+        try (NBTInputStream nbtInputStream = NbtUtils.createNetworkReader(runtimeStates)) {
+            blocksTag = (ListTag<CompoundTag>) nbtInputStream.readTag();
+        } catch (Exception e) {
+            throw new AssertionError("Unable to get blocks from runtime block states", e);
+        }
+
+        Map<CompoundTag, CompoundTag> blockStateMap = new HashMap<>();
+
+        for (CompoundTag tag : blocksTag.getValue()) {
+            if (blockStateMap.putIfAbsent(tag.getCompound("block"), tag) != null) {
+                throw new AssertionError("Duplicate block states in Bedrock palette");
+            }
+        }
+
+        JsonNode blocks;
+        try {
+            blocks = new ObjectMapper().readTree(mappings);
+        } catch (Exception e) {
+            throw new AssertionError("Unable to load Java block mappings", e);
+        }
+        Int2IntMap javaToBedrockBlockMap = new Int2IntOpenHashMap();
+        Int2IntMap bedrockToJavaBlockMap = new Int2IntOpenHashMap();
+        BitSet waterloggedStates = new BitSet();
+        Object2IntMap<CompoundTag> addedStatesMap = new Object2IntOpenHashMap<>();
+        addedStatesMap.defaultReturnValue(-1);
+        List<CompoundTag> paletteList = new ArrayList<>();
+        List<String> missingMappings = new ArrayList<>();
+
+        int waterRuntimeId = -1;
+        int javaRuntimeId = -1;
+        int bedrockRuntimeId = 0;
+        Iterator<Map.Entry<String, JsonNode>> blocksIterator = blocks.fields();
+        while (blocksIterator.hasNext()) {
+            javaRuntimeId++;
+            Map.Entry<String, JsonNode> entry = blocksIterator.next();
+            String javaId = entry.getKey();
+            CompoundTag blockTag = buildBedrockState(entry.getValue());
+
+            if ("minecraft:water[level=0]".equals(javaId)) {
+                waterRuntimeId = bedrockRuntimeId;
+            }
+            boolean waterlogged = entry.getKey().contains("waterlogged=true")
+                    || javaId.contains("minecraft:bubble_column") || javaId.contains("minecraft:kelp") || javaId.contains("seagrass");
+
+            if (waterlogged) {
+                bedrockToJavaBlockMap.putIfAbsent(bedrockRuntimeId | BlockTranslator.WATERLOGGED_FLAG, javaRuntimeId);
+                waterloggedStates.set(javaRuntimeId);
+            } else {
+                bedrockToJavaBlockMap.putIfAbsent(bedrockRuntimeId, javaRuntimeId);
+            }
+
+            CompoundTag runtimeTag = blockStateMap.remove(blockTag);
+            if (runtimeTag != null) {
+                addedStatesMap.put(blockTag, bedrockRuntimeId);
+                paletteList.add(runtimeTag);
+            } else {
+                int duplicateRuntimeId = addedStatesMap.get(blockTag);
+                if (duplicateRuntimeId == -1) {
+                    missingMappings.add(javaId);
+                } else {
+                    javaToBedrockBlockMap.put(javaRuntimeId, duplicateRuntimeId);
+                }
+                continue;
+            }
+            javaToBedrockBlockMap.put(javaRuntimeId, bedrockRuntimeId);
+
+            bedrockRuntimeId++;
+        }
+
+        if (waterRuntimeId == -1) {
+            throw new AssertionError("Unable to find water in palette");
+        }
+
+        paletteList.addAll(blockStateMap.values()); // Add any missing mappings that could crash the client
+
+        // Unmapped Java states keep translating to air
+        int[] javaToBedrock = new int[javaRuntimeId + 1];
+        for (Int2IntMap.Entry entry : javaToBedrockBlockMap.int2IntEntrySet()) {
+            javaToBedrock[entry.getIntKey()] = entry.getIntValue();
+        }
+        int[] bedrockToJava = new int[bedrockRuntimeId + 1];
+        int[] bedrockToJavaWaterlogged = new int[bedrockRuntimeId + 1];
+        Arrays.fill(bedrockToJava, -1);
+        Arrays.fill(bedrockToJavaWaterlogged, -1);
+        for (Int2IntMap.Entry entry : bedrockToJavaBlockMap.int2IntEntrySet()) {
+            int bedrockId = entry.getIntKey();
+            if ((bedrockId & BlockTranslator.WATERLOGGED_FLAG) != 0) {
+                bedrockToJavaWaterlogged[bedrockId & ~BlockTranslator.WATERLOGGED_FLAG] = entry.getIntValue();
+            } else {
+                bedrockToJava[bedrockId] = entry.getIntValue();
+            }
+        }
+
+        return new BlockMappings(new ListTag<>("", CompoundTag.class, paletteList), waterRuntimeId, javaToBedrock,
+                waterloggedStates, bedrockToJava, bedrockToJavaWaterlogged, missingMappings);
+    }
+
+    private static CompoundTag buildBedrockState(JsonNode node) {
+        CompoundTagBuilder tagBuilder = CompoundTag.builder();
+        tagBuilder.stringTag("name", node.get("bedrock_identifier").textValue())
+                .intTag("version", BLOCK_STATE_VERSION);
+
+        CompoundTagBuilder statesBuilder = CompoundTag.builder();
+
+        // check for states
+        if (node.has("bedrock_states")) {
+            Iterator<Map.Entry<String, JsonNode>> statesIterator = node.get("bedrock_states").fields();
+
+            while (statesIterator.hasNext()) {
+                Map.Entry<String, JsonNode> stateEntry = statesIterator.next();
+                JsonNode stateValue = stateEntry.getValue();
+                switch (stateValue.getNodeType()) {
+                    case BOOLEAN:
+                        statesBuilder.booleanTag(stateEntry.getKey(), stateValue.booleanValue());
+                        continue;
+                    case STRING:
+                        statesBuilder.stringTag(stateEntry.getKey(), stateValue.textValue());
+                        continue;
+                    case NUMBER:
+                        statesBuilder.intTag(stateEntry.getKey(), stateValue.intValue());
+                }
+            }
+        }
+        return tagBuilder.tag(statesBuilder.build("states")).build("block");
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        ByteArrayOutputStream paletteBytes = new ByteArrayOutputStream();
+        try (NBTOutputStream stream = NbtUtils.createNetworkWriter(paletteBytes)) {
+            stream.write(blocks);
+        }
+        out.writeInt(paletteBytes.size());
+        paletteBytes.writeTo(out);
+
+        out.writeInt(bedrockWaterId);
+        writeInts(out, javaToBedrock);
+        long[] waterloggedWords = waterlogged.toLongArray();
+        out.writeInt(waterloggedWords.length);
+        for (long word : waterloggedWords) {
+            out.writeLong(word);
+        }
+        writeInts(out, bedrockToJava);
+        writeInts(out, bedrockToJavaWaterlogged);
+        // Missing mappings are only of interest when building the mappings
+    }
+
+    @SuppressWarnings("unchecked")
+    public static BlockMappings read(DataInputStream in) throws IOException {
+        byte[] paletteBytes = new byte[in.readInt()];
+        in.readFully(paletteBytes);
+        ListTag<CompoundTag> blocks;
+        try (NBTInputStream stream = NbtUtils.createNetworkReader(new ByteArrayInputStream(paletteBytes))) {
+            blocks = (ListTag<CompoundTag>) stream.readTag();
+        }
+
+        int bedrockWaterId = in.readInt();
+        int[] javaToBedrock = readInts(in);
+        long[] waterloggedWords = new long[in.readInt()];
+        for (int i = 0; i < waterloggedWords.length; i++) {
+            waterloggedWords[i] = in.readLong();
+        }
+        int[] bedrockToJava = readInts(in);
+        int[] bedrockToJavaWaterlogged = readInts(in);
+        return new BlockMappings(blocks, bedrockWaterId, javaToBedrock, BitSet.valueOf(waterloggedWords),
+                bedrockToJava, bedrockToJavaWaterlogged, Collections.emptyList());
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
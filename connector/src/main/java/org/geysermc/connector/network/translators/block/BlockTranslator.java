@@ -25,120 +25,63 @@
 
 package org.geysermc.connector.network.translators.block;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.github.steveice10.mc.protocol.data.game.world.block.BlockState;
-import com.nukkitx.nbt.CompoundTagBuilder;
-import com.nukkitx.nbt.NbtUtils;
-import com.nukkitx.nbt.stream.NBTInputStream;
 import com.nukkitx.nbt.tag.CompoundTag;
 import com.nukkitx.nbt.tag.ListTag;
-import it.unimi.dsi.fastutil.ints.Int2IntMap;
-import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
-import it.unimi.dsi.fastutil.ints.IntSet;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.geysermc.connector.GeyserConnector;
+import org.geysermc.connector.utils.CompiledMappings;
 import org.geysermc.connector.utils.Toolbox;
 
-import java.io.InputStream;
-import java.util.*;
+import java.util.BitSet;
 
 public class BlockTranslator {
     public static final ListTag<CompoundTag> BLOCKS;
     public static final BlockState AIR = new BlockState(0);
     public static final int BEDROCK_WATER_ID;
 
-    private static final Int2IntMap JAVA_TO_BEDROCK_BLOCK_MAP = new Int2IntOpenHashMap();
-    private static final Int2ObjectMap<BlockState> BEDROCK_TO_JAVA_BLOCK_MAP = new Int2ObjectOpenHashMap<>();
-    private static final IntSet WATERLOGGED = new IntOpenHashSet();
+    /**
+     * Set on the Bedrock runtime IDs returned by {@link #translate(int[], int[])} when the Java block state is waterlogged
+     */
+    public static final int WATERLOGGED_FLAG = 1 << 31;
+
+    // Java block state IDs and Bedrock runtime IDs are both contiguous, so these are indexed directly
+    private static final int[] JAVA_TO_BEDROCK_BLOCK_MAP;
+    private static final BlockState[] BEDROCK_TO_JAVA_BLOCK_MAP;
+    private static final BlockState[] BEDROCK_TO_JAVA_WATERLOGGED_BLOCK_MAP;
+    private static final BitSet WATERLOGGED;
 
     // Bedrock carpet ID, used in LlamaEntity.java for decoration
     public static final int CARPET = 171;
 
-    private static final int BLOCK_STATE_VERSION = 17760256;
-
     static {
-        /* Load block palette */
-        InputStream stream = Toolbox.getResource("bedrock/runtime_block_states.dat");
-
-        ListTag<CompoundTag> blocksTag;
-        try (NBTInputStream nbtInputStream = NbtUtils.createNetworkReader(stream)) {
-            blocksTag = (ListTag<CompoundTag>) nbtInputStream.readTag();
-        } catch (Exception e) {
-            throw new AssertionError("Unable to get blocks from runtime block states", e);
-        }
-
-        Map<CompoundTag, CompoundTag> blockStateMap = new HashMap<>();
-
-        for (CompoundTag tag : blocksTag.getValue()) {
-            if (blockStateMap.putIfAbsent(tag.getCompound("block"), tag) != null) {
-                throw new AssertionError("Duplicate block states in Bedrock palette");
+        long startTime = System.currentTimeMillis();
+        BlockMappings mappings = CompiledMappings.getBlocks();
+        if (mappings == null) {
+            mappings = BlockMappings.fromJson(Toolbox.getResource("bedrock/runtime_block_states.dat"), Toolbox.getResource("mappings/blocks.json"));
+            for (String javaId : mappings.getMissingMappings()) {
+                GeyserConnector.getInstance().getLogger().debug("Mapping " + javaId + " was not found for bedrock edition!");
             }
         }
 
-        stream = Toolbox.getResource("mappings/blocks.json");
-        JsonNode blocks;
-        try {
-            blocks = Toolbox.JSON_MAPPER.readTree(stream);
-        } catch (Exception e) {
-            throw new AssertionError("Unable to load Java block mappings", e);
-        }
-        Object2IntMap<CompoundTag> addedStatesMap = new Object2IntOpenHashMap<>();
-        addedStatesMap.defaultReturnValue(-1);
-        List<CompoundTag> paletteList = new ArrayList<>();
-
-        int waterRuntimeId = -1;
-        int javaRuntimeId = -1;
-        int bedrockRuntimeId = 0;
-        Iterator<Map.Entry<String, JsonNode>> blocksIterator = blocks.fields();
-        while (blocksIterator.hasNext()) {
-            javaRuntimeId++;
-            Map.Entry<String, JsonNode> entry = blocksIterator.next();
-            String javaId = entry.getKey();
-            CompoundTag blockTag = buildBedrockState(entry.getValue());
-
-            if ("minecraft:water[level=0]".equals(javaId)) {
-                waterRuntimeId = bedrockRuntimeId;
-            }
-            boolean waterlogged = entry.getKey().contains("waterlogged=true")
-                    || javaId.contains("minecraft:bubble_column") || javaId.contains("minecraft:kelp") || javaId.contains("seagrass");
-
-            if (waterlogged) {
-                BEDROCK_TO_JAVA_BLOCK_MAP.putIfAbsent(bedrockRuntimeId | 1 << 31, new BlockState(javaRuntimeId));
-                WATERLOGGED.add(javaRuntimeId);
-            } else {
-                BEDROCK_TO_JAVA_BLOCK_MAP.putIfAbsent(bedrockRuntimeId, new BlockState(javaRuntimeId));
-            }
+        BLOCKS = mappings.getBlocks();
+        BEDROCK_WATER_ID = mappings.getBedrockWaterId();
+        JAVA_TO_BEDROCK_BLOCK_MAP = mappings.getJavaToBedrock();
+        WATERLOGGED = mappings.getWaterlogged();
+        BEDROCK_TO_JAVA_BLOCK_MAP = toBlockStates(mappings.getBedrockToJava());
+        BEDROCK_TO_JAVA_WATERLOGGED_BLOCK_MAP = toBlockStates(mappings.getBedrockToJavaWaterlogged());
 
-            CompoundTag runtimeTag = blockStateMap.remove(blockTag);
-            if (runtimeTag != null) {
-                addedStatesMap.put(blockTag, bedrockRuntimeId);
-                paletteList.add(runtimeTag);
-            } else {
-                int duplicateRuntimeId = addedStatesMap.get(blockTag);
-                if (duplicateRuntimeId == -1) {
-                    GeyserConnector.getInstance().getLogger().debug("Mapping " + javaId + " was not found for bedrock edition!");
-                } else {
-                    JAVA_TO_BEDROCK_BLOCK_MAP.put(javaRuntimeId, duplicateRuntimeId);
-                }
-                continue;
-            }
-            JAVA_TO_BEDROCK_BLOCK_MAP.put(javaRuntimeId, bedrockRuntimeId);
-
-            bedrockRuntimeId++;
-        }
+        GeyserConnector.getInstance().getLogger().debug("Loaded block mappings in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
 
-        if (waterRuntimeId == -1) {
-            throw new AssertionError("Unable to find water in palette");
+    // Unmapped Bedrock IDs translate to null
+    private static BlockState[] toBlockStates(int[] javaIds) {
+        BlockState[] states = new BlockState[javaIds.length];
+        for (int i = 0; i < javaIds.length; i++) {
+            if (javaIds[i] != -1) {
+                states[i] = new BlockState(javaIds[i]);
+            }
         }
-        BEDROCK_WATER_ID = waterRuntimeId;
-
-        paletteList.addAll(blockStateMap.values()); // Add any missing mappings that could crash the client
-
-        BLOCKS = new ListTag<>("", CompoundTag.class, paletteList);
+        return states;
     }
 
     private BlockTranslator() {
@@ -148,52 +91,57 @@ public class BlockTranslator {
         // no-op
     }
 
-    private static CompoundTag buildBedrockState(JsonNode node) {
-        CompoundTagBuilder tagBuilder = CompoundTag.builder();
-        tagBuilder.stringTag("name", node.get("bedrock_identifier").textValue())
-                .intTag("version", BlockTranslator.BLOCK_STATE_VERSION);
-
-        CompoundTagBuilder statesBuilder = CompoundTag.builder();
-
-        // check for states
-        if (node.has("bedrock_states")) {
-            Iterator<Map.Entry<String, JsonNode>> statesIterator = node.get("bedrock_states").fields();
-
-            while (statesIterator.hasNext()) {
-                Map.Entry<String, JsonNode> stateEntry = statesIterator.next();
-                JsonNode stateValue = stateEntry.getValue();
-                switch (stateValue.getNodeType()) {
-                    case BOOLEAN:
-                        statesBuilder.booleanTag(stateEntry.getKey(), stateValue.booleanValue());
-                        continue;
-                    case STRING:
-                        statesBuilder.stringTag(stateEntry.getKey(), stateValue.textValue());
-                        continue;
-                    case NUMBER:
-                        statesBuilder.intTag(stateEntry.getKey(), stateValue.intValue());
-                }
-            }
-        }
-        return tagBuilder.tag(statesBuilder.build("states")).build("block");
-    }
-
     public static int getBedrockBlockId(BlockState state) {
-        return JAVA_TO_BEDROCK_BLOCK_MAP.get(state.getId());
+        return getBedrockBlockId(state.getId());
     }
 
     public static int getBedrockBlockId(int javaId) {
-        return JAVA_TO_BEDROCK_BLOCK_MAP.get(javaId);
+        if (javaId < 0 || javaId >= JAVA_TO_BEDROCK_BLOCK_MAP.length) {
+            return 0;
+        }
+        return JAVA_TO_BEDROCK_BLOCK_MAP[javaId];
+    }
+
+    /**
+     * Translates Java block state IDs to Bedrock runtime IDs in bulk. Waterlogged states
+     * have {@link #WATERLOGGED_FLAG} set on their runtime ID.
+     *
+     * @param javaIds the Java block state IDs
+     * @param out the array to write the Bedrock runtime IDs to, which may be javaIds itself
+     */
+    public static void translate(int[] javaIds, int[] out) {
+        if (out.length < javaIds.length) {
+            throw new IllegalArgumentException("Output array is too small (" + out.length + " < " + javaIds.length + ")");
+        }
+        int[] javaToBedrock = JAVA_TO_BEDROCK_BLOCK_MAP;
+        for (int i = 0; i < javaIds.length; i++) {
+            int javaId = javaIds[i];
+            if (javaId < 0 || javaId >= javaToBedrock.length) {
+                out[i] = 0;
+                continue;
+            }
+            int bedrockId = javaToBedrock[javaId];
+            out[i] = WATERLOGGED.get(javaId) ? bedrockId | WATERLOGGED_FLAG : bedrockId;
+        }
     }
 
     public static BlockState getJavaBlockState(int bedrockId) {
-        return BEDROCK_TO_JAVA_BLOCK_MAP.get(bedrockId);
+        if ((bedrockId & WATERLOGGED_FLAG) != 0) {
+            return getJavaWaterloggedState(bedrockId & ~WATERLOGGED_FLAG);
+        }
+        return bedrockId < BEDROCK_TO_JAVA_BLOCK_MAP.length ? BEDROCK_TO_JAVA_BLOCK_MAP[bedrockId] : null;
     }
 
     public static boolean isWaterlogged(BlockState state) {
-        return WATERLOGGED.contains(state.getId());
+        return isWaterlogged(state.getId());
+    }
+
+    public static boolean isWaterlogged(int javaId) {
+        return javaId >= 0 && WATERLOGGED.get(javaId);
     }
 
     public static BlockState getJavaWaterloggedState(int bedrockId) {
-        return BEDROCK_TO_JAVA_BLOCK_MAP.get(1 << 31 | bedrockId);
+        bedrockId &= ~WATERLOGGED_FLAG;
+        return bedrockId < BEDROCK_TO_JAVA_WATERLOGGED_BLOCK_MAP.length ? BEDROCK_TO_JAVA_WATERLOGGED_BLOCK_MAP[bedrockId] : null;
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.network.translators.item;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Bedrock item palette and the Java to Bedrock item mappings, built from their JSON files
+ * or read back from their compiled form.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemMappings {
+
+    /**
+     * The identifiers and runtime IDs of the Bedrock item palette
+     */
+    private final String[] bedrockIdentifiers;
+    private final short[] bedrockIds;
+
+    /**
+     * The identifier and Bedrock ID and data of every Java item, indexed by Java item ID
+     */
+    private final String[] javaIdentifiers;
+    private final int[] javaToBedrockIds;
+    private final int[] javaToBedrockData;
+
+    public static ItemMappings fromJson(InputStream bedrockItems, InputStream mappings) {
+        ObjectMapper mapper = new ObjectMapper();
+
+        TypeReference<List<JsonNode>> itemEntriesType = new TypeReference<List<JsonNode>>() {
+        };
+
+        List<JsonNode> itemEntries;
+        try {
+            itemEntries = mapper.readValue(bedrockItems, itemEntriesType);
+        } catch (Exception e) {
+            throw new AssertionError("Unable to load Bedrock runtime item IDs", e);
+        }
+
+        String[] bedrockIdentifiers = new String[itemEntries.size()];
+        short[] bedrockIds = new short[itemEntries.size()];
+        for (int i = 0; i < itemEntries.size(); i++) {
+            JsonNode entry = itemEntries.get(i);
+            bedrockIdentifiers[i] = entry.get("name").textValue();
+            bedrockIds[i] = (short) entry.get("id").intValue();
+        }
+
+        JsonNode items;
+        try {
+            items = mapper.readTree(mappings);
+        } catch (Exception e) {
+            throw new AssertionError("Unable to load Java runtime item IDs", e);
+        }
+
+        String[] javaIdentifiers = new String[items.size()];
+        int[] javaToBedrockIds = new int[items.size()];
+        int[] javaToBedrockData = new int[items.size()];
+        int itemIndex = 0;
+        Iterator<Map.Entry<String, JsonNode>> iterator = items.fields();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JsonNode> entry = iterator.next();
+            javaIdentifiers[itemIndex] = entry.getKey();
+            javaToBedrockIds[itemIndex] = entry.getValue().get("bedrock_id").intValue();
+            javaToBedrockData[itemIndex] = entry.getValue().get("bedrock_data").intValue();
+            itemIndex++;
+        }
+        return new ItemMappings(bedrockIdentifiers, bedrockIds, javaIdentifiers, javaToBedrockIds, javaToBedrockData);
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(bedrockIdentifiers.length);
+        for (int i = 0; i < bedrockIdentifiers.length; i++) {
+            out.writeUTF(bedrockIdentifiers[i]);
+            out.writeShort(bedrockIds[i]);
+        }
+
+        out.writeInt(javaIdentifiers.length);
+        for (int i = 0; i < javaIdentifiers.length; i++) {
+            out.writeUTF(javaIdentifiers[i]);
+            out.writeInt(javaToBedrockIds[i]);
+            out.writeInt(javaToBedrockData[i]);
+        }
+    }
+
+    public static ItemMappings read(DataInputStream in) throws IOException {
+        int bedrockCount = in.readInt();
+        String[] bedrockIdentifiers = new String[bedrockCount];
+        short[] bedrockIds = new short[bedrockCount];
+        for (int i = 0; i < bedrockCount; i++) {
+            bedrockIdentifiers[i] = in.readUTF();
+            bedrockIds[i] = in.readShort();
+        }
+
+        int javaCount = in.readInt();
+        String[] javaIdentifiers = new String[javaCount];
+        int[] javaToBedrockIds = new int[javaCount];
+        int[] javaToBedrockData = new int[javaCount];
+        for (int i = 0; i < javaCount; i++) {
+            javaIdentifiers[i] = in.readUTF();
+            javaToBedrockIds[i] = in.readInt();
+            javaToBedrockData[i] = in.readInt();
+        }
+        return new ItemMappings(bedrockIdentifiers, bedrockIds, javaIdentifiers, javaToBedrockIds, javaToBedrockData);
+    }
+}
@@ -45,6 +45,10 @@ public class JavaEntityAnimationTranslator extends PacketTranslator<ServerEntity
         if (entity == null)
             return;
 
+        // Animations are not worth sending for entities the player cannot see
+        if (session.getEntityCache().getInterestManager().isOutOfRange(entity))
+            return;
+
         AnimatePacket animatePacket = new AnimatePacket();
         animatePacket.setRuntimeEntityId(entity.getGeyserId());
         switch (packet.getAnimation()) {
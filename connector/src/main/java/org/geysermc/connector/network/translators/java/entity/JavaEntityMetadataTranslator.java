@@ -47,5 +47,12 @@ public class JavaEntityMetadataTranslator extends PacketTranslator<ServerEntityM
         for (EntityMetadata metadata : packet.getMetadata()) {
             entity.updateBedrockMetadata(metadata, session);
         }
+
+        // Sent once all entries have been applied, with only the metadata that changed
+        if (entity == session.getPlayerEntity()) {
+            entity.sendBedrockMetadata(session);
+        } else {
+            entity.updateBedrockMetadata(session);
+        }
     }
 }
@@ -33,11 +33,9 @@ import org.geysermc.connector.network.translators.PacketTranslator;
 import org.geysermc.connector.network.translators.Translator;
 
 import com.github.steveice10.mc.protocol.packet.ingame.server.entity.player.ServerPlayerAbilitiesPacket;
-import com.nukkitx.protocol.bedrock.data.EntityDataMap;
 import com.nukkitx.protocol.bedrock.data.EntityFlag;
 import com.nukkitx.protocol.bedrock.data.PlayerPermission;
 import com.nukkitx.protocol.bedrock.packet.AdventureSettingsPacket;
-import com.nukkitx.protocol.bedrock.packet.SetEntityDataPacket;
 
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
@@ -50,13 +48,8 @@ public class JavaPlayerAbilitiesTranslator extends PacketTranslator<ServerPlayer
         if (entity == null)
             return;
 
-        EntityDataMap metadata = entity.getMetadata();
-        metadata.getFlags().setFlag(EntityFlag.CAN_FLY, packet.isCanFly());
-
-        SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
-        entityDataPacket.setRuntimeEntityId(entity.getGeyserId());
-        entityDataPacket.getMetadata().putAll(metadata);
-        session.getUpstream().sendPacket(entityDataPacket);
+        entity.getMetadata().getFlags().setFlag(EntityFlag.CAN_FLY, packet.isCanFly());
+        entity.sendBedrockMetadata(session);
 
         Set<AdventureSettingsPacket.Flag> playerFlags = new ObjectOpenHashSet<>();
         playerFlags.add(AdventureSettingsPacket.Flag.AUTO_JUMP);
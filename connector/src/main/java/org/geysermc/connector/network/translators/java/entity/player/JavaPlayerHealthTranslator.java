@@ -48,15 +48,15 @@ public class JavaPlayerHealthTranslator extends PacketTranslator<ServerPlayerHea
         setHealthPacket.setHealth(health);
         session.getUpstream().sendPacket(setHealthPacket);
 
-        float maxHealth = entity.getAttributes().containsKey(AttributeType.MAX_HEALTH) ? entity.getAttributes().get(AttributeType.MAX_HEALTH).getValue() : 20f;
+        float maxHealth = entity.getAttribute(AttributeType.MAX_HEALTH) != null ? entity.getAttribute(AttributeType.MAX_HEALTH).getValue() : 20f;
         // Max health must be divisible by two in bedrock
         if ((maxHealth % 2) == 1) {
             maxHealth += 1;
         }
 
-        entity.getAttributes().put(AttributeType.HEALTH, AttributeType.HEALTH.getAttribute(health, maxHealth));
-        entity.getAttributes().put(AttributeType.HUNGER, AttributeType.HUNGER.getAttribute(packet.getFood()));
-        entity.getAttributes().put(AttributeType.SATURATION, AttributeType.SATURATION.getAttribute(packet.getSaturation()));
+        entity.setAttribute(AttributeType.HEALTH.getAttribute(health, maxHealth));
+        entity.setAttribute(AttributeType.HUNGER.getAttribute(packet.getFood()));
+        entity.setAttribute(AttributeType.SATURATION.getAttribute(packet.getSaturation()));
         entity.updateBedrockAttributes(session);
     }
 }
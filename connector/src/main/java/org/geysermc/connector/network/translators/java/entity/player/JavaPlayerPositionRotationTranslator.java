@@ -39,7 +39,6 @@ import com.nukkitx.protocol.bedrock.data.EntityEventType;
 import com.nukkitx.protocol.bedrock.packet.EntityEventPacket;
 import com.nukkitx.protocol.bedrock.packet.MovePlayerPacket;
 import com.nukkitx.protocol.bedrock.packet.RespawnPacket;
-import com.nukkitx.protocol.bedrock.packet.SetEntityDataPacket;
 
 @Translator(packet = ServerPlayerPositionRotationPacket.class)
 public class JavaPlayerPositionRotationTranslator extends PacketTranslator<ServerPlayerPositionRotationPacket> {
@@ -70,10 +69,8 @@ public class JavaPlayerPositionRotationTranslator extends PacketTranslator<Serve
             eventPacket.setData(0);
             session.getUpstream().sendPacket(eventPacket);
 
-            SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
-            entityDataPacket.setRuntimeEntityId(entity.getGeyserId());
-            entityDataPacket.getMetadata().putAll(entity.getMetadata());
-            session.getUpstream().sendPacket(entityDataPacket);
+            entity.invalidateBedrockMetadata();
+            entity.sendBedrockMetadata(session);
 
             MovePlayerPacket movePlayerPacket = new MovePlayerPacket();
             movePlayerPacket.setRuntimeEntityId(entity.getGeyserId());
@@ -42,8 +42,8 @@ public class JavaPlayerSetExperienceTranslator extends PacketTranslator<ServerPl
         if (entity == null)
             return;
 
-        entity.getAttributes().put(AttributeType.EXPERIENCE, AttributeType.EXPERIENCE.getAttribute(packet.getExperience()));
-        entity.getAttributes().put(AttributeType.EXPERIENCE_LEVEL, AttributeType.EXPERIENCE_LEVEL.getAttribute(packet.getLevel()));
+        entity.setAttribute(AttributeType.EXPERIENCE.getAttribute(packet.getExperience()));
+        entity.setAttribute(AttributeType.EXPERIENCE_LEVEL.getAttribute(packet.getLevel()));
         entity.updateBedrockAttributes(session);
     }
 }
@@ -25,8 +25,6 @@
 
 package org.geysermc.connector.network.translators.java.entity.spawn;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 
 import org.geysermc.connector.entity.Entity;
 import org.geysermc.connector.entity.type.EntityType;
@@ -52,18 +50,13 @@ public class JavaSpawnMobTranslator extends PacketTranslator<ServerSpawnMobPacke
             session.getConnector().getLogger().warning("Entity type " + packet.getType() + " was null.");
             return;
         }
-
-        Class<? extends Entity> entityClass = type.getEntityClass();
-        try {
-            Constructor<? extends Entity> entityConstructor = entityClass.getConstructor(long.class, long.class, EntityType.class,
-                    Vector3f.class, Vector3f.class, Vector3f.class);
-
-            Entity entity = entityConstructor.newInstance(packet.getEntityId(), session.getEntityCache().getNextEntityId().incrementAndGet(),
-                    type, position, motion, rotation
-            );
-            session.getEntityCache().spawnEntity(entity);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
-            ex.printStackTrace();
+        if (type.getFactory() == null) {
+            session.getConnector().getLogger().warning("Entity type " + type + " cannot be spawned from " + packet.getType() + ".");
+            return;
         }
+
+        Entity entity = type.getFactory().create(packet.getEntityId(), session.getEntityCache().getNextEntityId().incrementAndGet(),
+                type, position, motion, rotation);
+        session.getEntityCache().spawnEntity(entity);
     }
 }
@@ -25,8 +25,6 @@
 
 package org.geysermc.connector.network.translators.java.entity.spawn;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 
 import com.github.steveice10.mc.protocol.data.game.entity.type.object.FallingBlockData;
 import org.geysermc.connector.entity.Entity;
@@ -58,24 +56,19 @@ public class JavaSpawnObjectTranslator extends PacketTranslator<ServerSpawnObjec
             session.getConnector().getLogger().warning("Entity type " + packet.getType() + " was null.");
             return;
         }
+        if (type.getFactory() == null && type != EntityType.FALLING_BLOCK) {
+            session.getConnector().getLogger().warning("Entity type " + type + " cannot be spawned from " + packet.getType() + ".");
+            return;
+        }
 
-        Class<? extends Entity> entityClass = type.getEntityClass();
-        try {
-            Entity entity;
-            if (packet.getType() == ObjectType.FALLING_BLOCK) {
-                entity = new FallingBlockEntity(packet.getEntityId(), session.getEntityCache().getNextEntityId().incrementAndGet(),
-                        type, position, motion, rotation, ((FallingBlockData) packet.getData()).getId());
-            } else {
-                Constructor<? extends Entity> entityConstructor = entityClass.getConstructor(long.class, long.class, EntityType.class,
-                        Vector3f.class, Vector3f.class, Vector3f.class);
-
-                entity = entityConstructor.newInstance(packet.getEntityId(), session.getEntityCache().getNextEntityId().incrementAndGet(),
-                        type, position, motion, rotation
-                );
-            }
-            session.getEntityCache().spawnEntity(entity);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
-            ex.printStackTrace();
+        Entity entity;
+        if (packet.getType() == ObjectType.FALLING_BLOCK) {
+            entity = new FallingBlockEntity(packet.getEntityId(), session.getEntityCache().getNextEntityId().incrementAndGet(),
+                    type, position, motion, rotation, ((FallingBlockData) packet.getData()).getId());
+        } else {
+            entity = type.getFactory().create(packet.getEntityId(), session.getEntityCache().getNextEntityId().incrementAndGet(),
+                    type, position, motion, rotation);
         }
+        session.getEntityCache().spawnEntity(entity);
     }
 }
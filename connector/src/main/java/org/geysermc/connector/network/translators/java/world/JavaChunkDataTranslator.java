@@ -25,22 +25,13 @@
 
 package org.geysermc.connector.network.translators.java.world;
 
-import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.network.session.GeyserSession;
-import org.geysermc.connector.network.translators.BiomeTranslator;
 import org.geysermc.connector.network.translators.PacketTranslator;
 import org.geysermc.connector.network.translators.Translator;
 import org.geysermc.connector.utils.ChunkUtils;
-import org.geysermc.connector.world.chunk.ChunkSection;
+import org.geysermc.connector.world.chunk.CachedColumn;
 
-import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
-import com.github.steveice10.mc.protocol.data.game.world.block.BlockState;
 import com.github.steveice10.mc.protocol.packet.ingame.server.world.ServerChunkDataPacket;
-import com.nukkitx.network.VarInts;
-import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
-
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 
 @Translator(packet = ServerChunkDataPacket.class)
 public class JavaChunkDataTranslator extends PacketTranslator<ServerChunkDataPacket> {
@@ -51,46 +42,15 @@ public class JavaChunkDataTranslator extends PacketTranslator<ServerChunkDataPac
             ChunkUtils.updateChunkPosition(session, session.getPlayerEntity().getPosition().toInt());
         }
 
-        if (packet.getColumn().getBiomeData() == null) //Non-full chunk
-            return;
-
-        // Not sure if this is safe or not, however without this the client usually times out
-        GeyserConnector.getInstance().getGeneralThreadPool().execute(() -> {
-            try {
-                ChunkUtils.ChunkData chunkData = ChunkUtils.translateToBedrock(packet.getColumn());
-                ByteBuf byteBuf = Unpooled.buffer(32);
-                ChunkSection[] sections = chunkData.sections;
-
-                int sectionCount = sections.length - 1;
-                while (sectionCount >= 0 && sections[sectionCount].isEmpty()) {
-                    sectionCount--;
-                }
-                sectionCount++;
-
-                for (int i = 0; i < sectionCount; i++) {
-                    ChunkSection section = chunkData.sections[i];
-                    section.writeToNetwork(byteBuf);
-                }
-
-                byte[] bedrockBiome = BiomeTranslator.toBedrockBiome(packet.getColumn().getBiomeData());
-
-                byteBuf.writeBytes(bedrockBiome); // Biomes - 256 bytes
-                byteBuf.writeByte(0); // Border blocks - Edu edition only
-                VarInts.writeUnsignedInt(byteBuf, 0); // extra data length, 0 for now
-
-                byte[] payload = new byte[byteBuf.writerIndex()];
-                byteBuf.readBytes(payload);
-
-                LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-                levelChunkPacket.setSubChunksLength(sectionCount);
-                levelChunkPacket.setCachingEnabled(false);
-                levelChunkPacket.setChunkX(packet.getColumn().getX());
-                levelChunkPacket.setChunkZ(packet.getColumn().getZ());
-                levelChunkPacket.setData(payload);
-                session.getUpstream().sendPacket(levelChunkPacket);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-        });
+        CachedColumn column;
+        if (packet.getColumn().getBiomeData() == null) {
+            // Non-full chunks only contain the sections that changed, such as after a large edit
+            column = session.getChunkCache().mergeIntoCache(packet.getColumn());
+            if (column == null)
+                return;
+        } else {
+            column = session.getChunkCache().addToCache(packet.getColumn());
+        }
+        ChunkUtils.queueColumn(session, column);
     }
 }
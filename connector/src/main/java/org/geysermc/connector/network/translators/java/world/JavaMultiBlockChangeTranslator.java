@@ -29,17 +29,110 @@ import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.PacketTranslator;
 import org.geysermc.connector.network.translators.Translator;
 import org.geysermc.connector.utils.ChunkUtils;
+import org.geysermc.connector.world.chunk.CachedColumn;
 
+import com.github.steveice10.mc.protocol.data.game.entity.metadata.Position;
 import com.github.steveice10.mc.protocol.data.game.world.block.BlockChangeRecord;
 import com.github.steveice10.mc.protocol.packet.ingame.server.world.ServerMultiBlockChangePacket;
+import com.nukkitx.math.vector.Vector3i;
+import com.nukkitx.protocol.bedrock.BedrockPacket;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Translator(packet = ServerMultiBlockChangePacket.class)
 public class JavaMultiBlockChangeTranslator extends PacketTranslator<ServerMultiBlockChangePacket> {
 
     @Override
     public void translate(ServerMultiBlockChangePacket packet, GeyserSession session) {
-        for (BlockChangeRecord record : packet.getRecords()) {
-            ChunkUtils.updateBlock(session, record.getBlock(), record.getPosition());
+        BlockChangeRecord[] records = packet.getRecords();
+        if (records.length == 0) {
+            return;
+        }
+
+        if (shouldResendColumn(records, session)) {
+            Position position = records[0].getPosition();
+            for (BlockChangeRecord record : records) {
+                session.getChunkCache().updateBlock(record.getPosition(), record.getBlock());
+            }
+            ChunkUtils.queueColumn(session, session.getChunkCache().getColumn(position.getX() >> 4, position.getZ() >> 4));
+            return;
+        }
+
+        sendBatch(records, session);
+    }
+
+    /**
+     * Sends the changed blocks of the column together, so they are held back or sent as one batch.
+     * Only the last change of a block that changes more than once is sent.
+     */
+    private void sendBatch(BlockChangeRecord[] records, GeyserSession session) {
+        boolean[] superseded = new boolean[records.length];
+        LongSet positions = new LongOpenHashSet(records.length);
+        for (int i = records.length - 1; i >= 0; i--) {
+            superseded[i] = !positions.add(positionKey(records[i].getPosition()));
+        }
+
+        Position first = records[0].getPosition();
+        int chunkX = first.getX() >> 4;
+        int chunkZ = first.getZ() >> 4;
+        List<BedrockPacket> packets = new ArrayList<>(records.length << 1);
+        for (int i = 0; i < records.length; i++) {
+            if (superseded[i]) {
+                session.getChunkCache().addSuppressedBlockUpdates(2);
+                continue;
+            }
+
+            Position position = records[i].getPosition();
+            if (position.getX() >> 4 != chunkX || position.getZ() >> 4 != chunkZ) {
+                ChunkUtils.updateBlock(session, records[i].getBlock(), position);
+                continue;
+            }
+            ChunkUtils.addBlockUpdates(session, records[i].getBlock(), Vector3i.from(position.getX(), position.getY(), position.getZ()), packets);
+        }
+
+        if (!packets.isEmpty()) {
+            session.getChunkSendQueue().sendAfterChunk(chunkX, chunkZ, packets);
+        }
+    }
+
+    private static long positionKey(Position position) {
+        return ((position.getX() & 0x3FFFFFFL) << 38) | ((position.getZ() & 0x3FFFFFFL) << 12) | (position.getY() & 0xFFFL);
+    }
+
+    /**
+     * Checks if enough blocks change in a single section of a cached column that sending the
+     * whole column again is cheaper than sending two block updates for every block.
+     * Bedrock has no packet for a single section in this version, so the whole column is sent.
+     */
+    private boolean shouldResendColumn(BlockChangeRecord[] records, GeyserSession session) {
+        int threshold = session.getConnector().getConfig().getSectionResendThreshold();
+        if (threshold <= 0 || records.length < threshold) {
+            return false;
+        }
+
+        Position first = records[0].getPosition();
+        int chunkX = first.getX() >> 4;
+        int chunkZ = first.getZ() >> 4;
+        CachedColumn column = session.getChunkCache().getColumn(chunkX, chunkZ);
+        if (column == null) {
+            return false;
+        }
+
+        int[] sectionChanges = new int[column.getSections().length];
+        boolean resend = false;
+        for (BlockChangeRecord record : records) {
+            Position position = record.getPosition();
+            int chunkY = position.getY() >> 4;
+            if (position.getX() >> 4 != chunkX || position.getZ() >> 4 != chunkZ || chunkY < 0 || chunkY >= sectionChanges.length) {
+                return false;
+            }
+            if (++sectionChanges[chunkY] >= threshold) {
+                resend = true;
+            }
         }
+        return resend;
     }
 }
@@ -25,55 +25,113 @@
 
 package org.geysermc.connector.utils;
 
-import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
-import com.github.steveice10.mc.protocol.data.game.chunk.Column;
 import com.github.steveice10.mc.protocol.data.game.entity.metadata.Position;
 import com.github.steveice10.mc.protocol.data.game.world.block.BlockState;
 import com.nukkitx.math.vector.Vector2i;
 import com.nukkitx.math.vector.Vector3i;
+import com.nukkitx.network.VarInts;
+import com.nukkitx.protocol.bedrock.BedrockPacket;
 import com.nukkitx.protocol.bedrock.packet.LevelChunkPacket;
 import com.nukkitx.protocol.bedrock.packet.NetworkChunkPublisherUpdatePacket;
 import com.nukkitx.protocol.bedrock.packet.UpdateBlockPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.geysermc.connector.network.session.GeyserSession;
 import org.geysermc.connector.network.translators.Translators;
 import org.geysermc.connector.network.translators.block.BlockTranslator;
-import org.geysermc.connector.world.chunk.ChunkSection;
+import org.geysermc.connector.world.chunk.BlockStorage;
+import org.geysermc.connector.world.chunk.CachedColumn;
+import org.geysermc.connector.world.chunk.ChunkPayloadCache;
+import org.geysermc.connector.world.chunk.ChunkSectionEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.geysermc.connector.network.translators.block.BlockTranslator.BEDROCK_WATER_ID;
 
 public class ChunkUtils {
-    public static ChunkData translateToBedrock(Column column) {
-        ChunkData chunkData = new ChunkData();
+    /**
+     * Queues a column to be translated and sent to the client. Translated columns are shared
+     * between sessions through the chunk payload cache if it is enabled.
+     *
+     * @param session the session to send the column to
+     * @param column the cached column
+     */
+    public static void queueColumn(GeyserSession session, CachedColumn column) {
+        queueColumn(session, column, true);
+    }
+
+    /**
+     * Queues a column to be translated and sent to the client
+     *
+     * @param session the session to send the column to
+     * @param column the cached column
+     * @param useBlobCache if the client blob cache may be used to send the column
+     */
+    public static void queueColumn(GeyserSession session, CachedColumn column, boolean useBlobCache) {
+        session.getChunkSendQueue().submit(column.getX(), column.getZ(), useBlobCache, () -> {
+            // The column may be changed by block updates while it is translated
+            synchronized (column) {
+                ChunkPayloadCache payloadCache = session.getConnector().getChunkPayloadCache();
+                if (!payloadCache.isEnabled()) {
+                    return encodeColumn(column);
+                }
 
-        Chunk[] chunks = column.getChunks();
-        int chunkSectionCount = chunks.length;
-        chunkData.sections = new ChunkSection[chunkSectionCount];
+                ChunkPayloadCache.Key key = ChunkPayloadCache.computeKey(column);
+                ChunkPayloadCache.CachedChunk chunk = payloadCache.get(key);
+                if (chunk == null) {
+                    chunk = encodeColumn(column);
+                    payloadCache.put(key, chunk);
+                }
+                return chunk;
+            }
+        });
+    }
 
-        for (int chunkY = 0; chunkY < chunkSectionCount; chunkY++) {
-            chunkData.sections[chunkY] = new ChunkSection();
-            Chunk chunk = chunks[chunkY];
+    /**
+     * Encodes a cached column into the payload of a LevelChunkPacket
+     *
+     * @param column the cached column
+     * @return the encoded column
+     */
+    public static ChunkPayloadCache.CachedChunk encodeColumn(CachedColumn column) {
+        BlockStorage[] sections = column.getSections();
+        ChunkSectionEncoder encoder = new ChunkSectionEncoder();
+        ChunkSectionEncoder.PreparedSection[] preparedSections = new ChunkSectionEncoder.PreparedSection[sections.length];
 
-            if (chunk == null || chunk.isEmpty())
-                continue;
+        int sectionCount = 0;
+        for (int i = 0; i < sections.length; i++) {
+            preparedSections[i] = encoder.prepare(sections[i]);
+            if (!preparedSections[i].isEmpty()) {
+                sectionCount = i + 1;
+            }
+        }
 
-            ChunkSection section = chunkData.sections[chunkY];
+        // Size the payload exactly so it is allocated once and written in place
+        int size = ChunkPayloadCache.BIOME_DATA_LENGTH + 2; // Biomes, border blocks and extra data length
+        for (int i = 0; i < sectionCount; i++) {
+            size += preparedSections[i].getNetworkSize();
+        }
+        byte[] payload = new byte[size];
+        ByteBuf byteBuf = Unpooled.wrappedBuffer(payload);
+        byteBuf.writerIndex(0);
 
-            for (int x = 0; x < 16; x++) {
-                for (int y = 0; y < 16; y++) {
-                    for (int z = 0; z < 16; z++) {
-                        BlockState blockState = chunk.get(x, y, z);
-                        int id = BlockTranslator.getBedrockBlockId(blockState);
+        int[] blobOffsets = new int[sectionCount + 1];
+        for (int i = 0; i < sectionCount; i++) {
+            blobOffsets[i] = byteBuf.writerIndex();
+            encoder.write(byteBuf, sections[i], preparedSections[i]);
+        }
+        blobOffsets[sectionCount] = byteBuf.writerIndex();
 
-                        section.getBlockStorageArray()[0].setFullBlock(ChunkSection.blockPosition(x, y, z), id);
+        byteBuf.writeBytes(column.getBiomes()); // Biomes - 256 bytes
+        byteBuf.writeByte(0); // Border blocks - Edu edition only
+        VarInts.writeUnsignedInt(byteBuf, 0); // extra data length, 0 for now
 
-                        if (BlockTranslator.isWaterlogged(blockState)) {
-                            section.getBlockStorageArray()[1].setFullBlock(ChunkSection.blockPosition(x, y, z), BEDROCK_WATER_ID);
-                        }
-                    }
-                }
-            }
+        if (byteBuf.writerIndex() != size) {
+            throw new IllegalStateException("Chunk payload size mismatch, expected " + size + " but wrote " + byteBuf.writerIndex());
         }
-        return chunkData;
+
+        return new ChunkPayloadCache.CachedChunk(sectionCount, payload, blobOffsets);
     }
 
     public static void updateChunkPosition(GeyserSession session, Vector3i position) {
@@ -95,25 +153,66 @@ public class ChunkUtils {
         updateBlock(session, blockState, pos);
     }
 
+    /**
+     * Sends a block change to the client. The change is compared with the cached block at the same
+     * position, and layers that would look the same to the client are not sent.
+     *
+     * @param session the session to send the block to
+     * @param blockState the new Java block state
+     * @param position the position of the block
+     */
     public static void updateBlock(GeyserSession session, BlockState blockState, Vector3i position) {
+        List<BedrockPacket> packets = new ArrayList<>(2);
+        addBlockUpdates(session, blockState, position, packets);
+        if (!packets.isEmpty()) {
+            session.getChunkSendQueue().sendAfterChunk(position.getX() >> 4, position.getZ() >> 4, packets);
+        }
+    }
+
+    /**
+     * Changes a block in the chunk cache and adds the packets that show the change to the client.
+     * Layers that would look the same to the client are left out.
+     *
+     * @param session the session the block changes for
+     * @param blockState the new Java block state
+     * @param position the position of the block
+     * @param packets the list to add the packets to
+     */
+    public static void addBlockUpdates(GeyserSession session, BlockState blockState, Vector3i position, List<BedrockPacket> packets) {
+        BlockState previousState = session.getChunkCache().updateBlock(position, blockState);
+
+        // The client may have changed the block itself, and the server resends the unchanged block to correct
+        // that, so both layers are always sent if the Java block did not change or is not known
+        boolean changed = previousState != null && previousState.getId() != blockState.getId();
+
         int blockId = BlockTranslator.getBedrockBlockId(blockState);
+        if (changed && BlockTranslator.getBedrockBlockId(previousState) == blockId) {
+            // Java only state changes, such as redstone power
+            session.getChunkCache().addSuppressedBlockUpdates(1);
+        } else {
+            UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
+            updateBlockPacket.setDataLayer(0);
+            updateBlockPacket.setBlockPosition(position);
+            updateBlockPacket.setRuntimeId(blockId);
+            updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NEIGHBORS);
+            packets.add(updateBlockPacket);
+        }
 
-        UpdateBlockPacket updateBlockPacket = new UpdateBlockPacket();
-        updateBlockPacket.setDataLayer(0);
-        updateBlockPacket.setBlockPosition(position);
-        updateBlockPacket.setRuntimeId(blockId);
-        updateBlockPacket.getFlags().add(UpdateBlockPacket.Flag.NEIGHBORS);
-        session.getUpstream().sendPacket(updateBlockPacket);
+        boolean waterlogged = BlockTranslator.isWaterlogged(blockState);
+        if (changed && BlockTranslator.isWaterlogged(previousState) == waterlogged) {
+            session.getChunkCache().addSuppressedBlockUpdates(1);
+            return;
+        }
 
         UpdateBlockPacket waterPacket = new UpdateBlockPacket();
         waterPacket.setDataLayer(1);
         waterPacket.setBlockPosition(position);
-        if (BlockTranslator.isWaterlogged(blockState)) {
+        if (waterlogged) {
             waterPacket.setRuntimeId(BEDROCK_WATER_ID);
         } else {
             waterPacket.setRuntimeId(0);
         }
-        session.getUpstream().sendPacket(waterPacket);
+        packets.add(waterPacket);
     }
 
     public static void sendEmptyChunks(GeyserSession session, Vector3i position, int radius, boolean forceUpdate) {
@@ -121,13 +220,7 @@ public class ChunkUtils {
         int chunkZ = position.getZ() >> 4;
         for (int x = -radius; x <= radius; x++) {
             for (int z = -radius; z <= radius; z++) {
-                LevelChunkPacket data = new LevelChunkPacket();
-                data.setChunkX(chunkX + x);
-                data.setChunkZ(chunkZ + z);
-                data.setSubChunksLength(0);
-                data.setData(Translators.EMPTY_LEVEL_CHUNK_DATA);
-                data.setCachingEnabled(false);
-                session.getUpstream().sendPacket(data);
+                sendChunk(session, chunkX + x, chunkZ + z, Translators.EMPTY_LEVEL_CHUNK);
 
                 if (forceUpdate) {
                     Vector3i pos = Vector3i.from(chunkX + x << 4, 80, chunkZ + z << 4);
@@ -141,9 +234,54 @@ public class ChunkUtils {
         }
     }
 
-    public static final class ChunkData {
-        public ChunkSection[] sections;
+    /**
+     * Gets the amount of bytes {@link #sendChunk(GeyserSession, int, int, ChunkPayloadCache.CachedChunk, boolean)}
+     * sends for a chunk. With the client blob cache only the blob IDs and the data outside of blobs are sent.
+     *
+     * @param session the session the chunk is sent to
+     * @param chunk the encoded chunk
+     * @param useBlobCache if the client blob cache may be used to send the chunk
+     * @return the amount of bytes sent with the chunk packet
+     */
+    public static int getSentSize(GeyserSession session, ChunkPayloadCache.CachedChunk chunk, boolean useBlobCache) {
+        if (useBlobCache && session.getBlobCache().isSupported()) {
+            return chunk.getNonBlobDataLength() + (chunk.getBlobIds().length << 3);
+        }
+        return chunk.getPayload().length;
+    }
 
-        public byte[] blockEntities = new byte[0];
+    /**
+     * Sends an encoded chunk to the client, using the client blob cache if it is supported
+     *
+     * @param session the session to send the chunk to
+     * @param chunkX the X coordinate of the chunk
+     * @param chunkZ the Z coordinate of the chunk
+     * @param chunk the encoded chunk
+     */
+    public static void sendChunk(GeyserSession session, int chunkX, int chunkZ, ChunkPayloadCache.CachedChunk chunk) {
+        sendChunk(session, chunkX, chunkZ, chunk, true);
+    }
+
+    /**
+     * Sends an encoded chunk to the client
+     *
+     * @param session the session to send the chunk to
+     * @param chunkX the X coordinate of the chunk
+     * @param chunkZ the Z coordinate of the chunk
+     * @param chunk the encoded chunk
+     * @param useBlobCache if the client blob cache may be used to send the chunk
+     */
+    public static void sendChunk(GeyserSession session, int chunkX, int chunkZ, ChunkPayloadCache.CachedChunk chunk, boolean useBlobCache) {
+        LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
+        levelChunkPacket.setChunkX(chunkX);
+        levelChunkPacket.setChunkZ(chunkZ);
+        levelChunkPacket.setSubChunksLength(chunk.getSubChunksLength());
+        if (useBlobCache && session.getBlobCache().isSupported()) {
+            session.getBlobCache().writeChunk(levelChunkPacket, chunkX, chunkZ, chunk);
+        } else {
+            levelChunkPacket.setCachingEnabled(false);
+            levelChunkPacket.setData(chunk.getPayload());
+        }
+        session.getUpstream().sendPacket(levelChunkPacket);
     }
 }
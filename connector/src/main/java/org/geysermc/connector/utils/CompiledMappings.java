@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.utils;
+
+import org.geysermc.connector.GeyserConnector;
+import org.geysermc.connector.network.translators.block.BlockMappings;
+import org.geysermc.connector.network.translators.item.ItemMappings;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Block and item mappings compiled into a single binary resource when Geyser is built, so they
+ * don't have to be built from JSON and NBT on every start. If the resource is missing, such as
+ * when running from an IDE, the mappings are built from their JSON files instead.
+ */
+public class CompiledMappings {
+
+    public static final String RESOURCE = "compiled_mappings.bin";
+
+    private static final int MAGIC = 0x4753524D;
+    private static final int VERSION = 1;
+
+    private static boolean loaded;
+    private static BlockMappings blocks;
+    private static ItemMappings items;
+
+    /**
+     * Gets the compiled block mappings
+     *
+     * @return the block mappings, or null if there are no compiled mappings
+     */
+    public static synchronized BlockMappings getBlocks() {
+        load();
+        return blocks;
+    }
+
+    /**
+     * Gets the compiled item mappings
+     *
+     * @return the item mappings, or null if there are no compiled mappings
+     */
+    public static synchronized ItemMappings getItems() {
+        load();
+        return items;
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        InputStream stream = CompiledMappings.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (stream == null) {
+            GeyserConnector.getInstance().getLogger().debug("No compiled mappings found, loading mappings from JSON");
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                GeyserConnector.getInstance().getLogger().debug("Compiled mappings are outdated, loading mappings from JSON");
+                return;
+            }
+            blocks = BlockMappings.read(in);
+            items = ItemMappings.read(in);
+        } catch (IOException e) {
+            GeyserConnector.getInstance().getLogger().warning("Unable to read compiled mappings, loading mappings from JSON: " + e.getMessage());
+            blocks = null;
+            items = null;
+        }
+    }
+
+    /**
+     * Compiles the mappings, run as part of the build
+     *
+     * @param args the directory to write the compiled mappings to
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: CompiledMappings <output directory>");
+        }
+
+        long startTime = System.currentTimeMillis();
+        BlockMappings blockMappings = BlockMappings.fromJson(getResource("bedrock/runtime_block_states.dat"), getResource("mappings/blocks.json"));
+        ItemMappings itemMappings = ItemMappings.fromJson(getResource("bedrock/items.json"), getResource("mappings/items.json"));
+
+        Path output = Paths.get(args[0], RESOURCE);
+        Files.createDirectories(output.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            blockMappings.write(out);
+            itemMappings.write(out);
+        }
+
+        for (String javaId : blockMappings.getMissingMappings()) {
+            System.out.println("Mapping " + javaId + " was not found for bedrock edition!");
+        }
+        System.out.println("Compiled mappings to " + output + " in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    // Toolbox is not used here, as loading it needs a running connector
+    private static InputStream getResource(String resource) {
+        InputStream stream = CompiledMappings.class.getClassLoader().getResourceAsStream(resource);
+        if (stream == null) {
+            throw new AssertionError("Unable to find resource: " + resource);
+        }
+        return stream;
+    }
+}
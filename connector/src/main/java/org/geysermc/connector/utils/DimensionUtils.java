@@ -38,6 +38,9 @@ public class DimensionUtils {
             return;
 
         session.getEntityCache().removeAllEntities();
+        session.getChunkCache().clear();
+        session.getChunkSendQueue().clear();
+        session.getBlobCache().clear();
         if (session.getPendingDimSwitches().getAndIncrement() > 0) {
             ChunkUtils.sendEmptyChunks(session, player.getPosition().toInt(), 3, true);
         }
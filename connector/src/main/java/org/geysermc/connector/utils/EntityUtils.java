@@ -30,8 +30,50 @@ import com.github.steveice10.mc.protocol.data.game.entity.type.MobType;
 import com.github.steveice10.mc.protocol.data.game.entity.type.object.ObjectType;
 import org.geysermc.connector.entity.type.EntityType;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public class EntityUtils {
 
+    /**
+     * Entity types created by their own translator rather than their {@link EntityType#getFactory()}
+     */
+    private static final Set<EntityType> SEPARATELY_SPAWNED_TYPES = EnumSet.of(EntityType.PLAYER, EntityType.NPC,
+            EntityType.EXPERIENCE_ORB, EntityType.PAINTING, EntityType.FALLING_BLOCK);
+
+    private static final Map<MobType, EntityType> MOB_TYPES = new EnumMap<>(MobType.class);
+    private static final Map<ObjectType, EntityType> OBJECT_TYPES = new EnumMap<>(ObjectType.class);
+
+    static {
+        for (MobType mobType : MobType.values()) {
+            try {
+                MOB_TYPES.put(mobType, EntityType.valueOf(mobType.name()));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        for (ObjectType objectType : ObjectType.values()) {
+            try {
+                OBJECT_TYPES.put(objectType, EntityType.valueOf(objectType.name()));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Checks that every entity type has a factory, so that an entity class without the expected
+     * constructor stops Geyser from starting instead of failing once such an entity spawns
+     */
+    public static void init() {
+        for (EntityType entityType : EntityType.values()) {
+            if (entityType.getFactory() == null && !SEPARATELY_SPAWNED_TYPES.contains(entityType)) {
+                throw new IllegalStateException("Entity class " + entityType.getEntityClass().getName() + " of entity type " + entityType
+                        + " has no constructor taking (long, long, EntityType, Vector3f, Vector3f, Vector3f)");
+            }
+        }
+    }
+
     public static int toBedrockEffectId(Effect effect) {
         switch (effect) {
             case GLOWING:
@@ -52,18 +94,10 @@ public class EntityUtils {
         }
     }
     public static EntityType toBedrockEntity(MobType type) {
-        try {
-            return EntityType.valueOf(type.name());
-        } catch (IllegalArgumentException ex) {
-            return null;
-        }
+        return MOB_TYPES.get(type);
     }
 
     public static EntityType toBedrockEntity(ObjectType type) {
-        try {
-            return EntityType.valueOf(type.name());
-        } catch (IllegalArgumentException ex) {
-            return null;
-        }
+        return OBJECT_TYPES.get(type);
     }
 }
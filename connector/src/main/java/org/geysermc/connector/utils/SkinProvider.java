@@ -45,7 +45,8 @@ import java.util.concurrent.*;
 public class SkinProvider {
     public static final Gson GSON = new GsonBuilder().create();
     public static final boolean ALLOW_THIRD_PARTY_CAPES = GeyserConnector.getInstance().getConfig().isAllowThirdPartyCapes();
-    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(ALLOW_THIRD_PARTY_CAPES ? 21 : 14);
+    private static final ExecutorService EXECUTOR_SERVICE = GeyserConnector.getInstance().getVirtualThreadExecutor() != null ?
+            GeyserConnector.getInstance().getVirtualThreadExecutor() : Executors.newFixedThreadPool(ALLOW_THIRD_PARTY_CAPES ? 21 : 14);
 
     public static final byte[] STEVE_SKIN = new ProvidedSkin("bedrock/skin/skin_steve.png").getSkin();
     public static final Skin EMPTY_SKIN = new Skin(-1, "steve", STEVE_SKIN);
@@ -135,7 +135,7 @@ public class SkinUtils {
 
     public static void requestAndHandleSkinAndCape(PlayerEntity entity, GeyserSession session,
                                                    Consumer<SkinProvider.SkinAndCape> skinAndCapeConsumer) {
-        GeyserConnector.getInstance().getGeneralThreadPool().execute(() -> {
+        session.runBlocking(() -> {
             GameProfileData data = GameProfileData.from(entity.getProfile());
 
             SkinProvider.requestSkinAndCape(entity.getUuid(), data.getSkinUrl(), data.getCapeUrl())
@@ -185,7 +185,7 @@ public class SkinUtils {
                         if (skinAndCapeConsumer != null) skinAndCapeConsumer.accept(skinAndCape);
                     });
 
-        });
+        }, GeyserConnector.getInstance().getGeneralThreadPool());
     }
 
     private static String getLegacySkinGeometry(String geometryName) {
@@ -25,9 +25,7 @@
 
 package org.geysermc.connector.utils;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nukkitx.nbt.NbtUtils;
 import com.nukkitx.nbt.stream.NBTInputStream;
@@ -39,6 +37,7 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 import org.geysermc.connector.GeyserConnector;
 import org.geysermc.connector.network.translators.item.ItemEntry;
+import org.geysermc.connector.network.translators.item.ItemMappings;
 import org.geysermc.connector.sound.SoundMap;
 
 
@@ -74,40 +73,22 @@ public class Toolbox {
         }
 
         /* Load item palette */
-        InputStream stream = getResource("bedrock/items.json");
-
-        TypeReference<List<JsonNode>> itemEntriesType = new TypeReference<List<JsonNode>>() {
-        };
-
-        List<JsonNode> itemEntries;
-        try {
-            itemEntries = JSON_MAPPER.readValue(stream, itemEntriesType);
-        } catch (Exception e) {
-            throw new AssertionError("Unable to load Bedrock runtime item IDs", e);
+        long startTime = System.currentTimeMillis();
+        ItemMappings itemMappings = CompiledMappings.getItems();
+        if (itemMappings == null) {
+            itemMappings = ItemMappings.fromJson(getResource("bedrock/items.json"), getResource("mappings/items.json"));
         }
 
-        for (JsonNode entry : itemEntries) {
-            ITEMS.add(new StartGamePacket.ItemEntry(entry.get("name").textValue(), (short) entry.get("id").intValue()));
+        for (int i = 0; i < itemMappings.getBedrockIds().length; i++) {
+            ITEMS.add(new StartGamePacket.ItemEntry(itemMappings.getBedrockIdentifiers()[i], itemMappings.getBedrockIds()[i]));
         }
 
-        stream = getResource("mappings/items.json");
-
-        JsonNode items;
-        try {
-            items = JSON_MAPPER.readTree(stream);
-        } catch (Exception e) {
-            throw new AssertionError("Unable to load Java runtime item IDs", e);
+        for (int itemIndex = 0; itemIndex < itemMappings.getJavaIdentifiers().length; itemIndex++) {
+            ITEM_ENTRIES.put(itemIndex, new ItemEntry(itemMappings.getJavaIdentifiers()[itemIndex], itemIndex,
+                    itemMappings.getJavaToBedrockIds()[itemIndex], itemMappings.getJavaToBedrockData()[itemIndex]));
         }
+        GeyserConnector.getInstance().getLogger().debug("Loaded item mappings in " + (System.currentTimeMillis() - startTime) + "ms");
 
-        int itemIndex = 0;
-        Iterator<Map.Entry<String, JsonNode>> iterator = items.fields();
-        while (iterator.hasNext()) {
-            Map.Entry<String, JsonNode> entry = iterator.next();
-            ITEM_ENTRIES.put(itemIndex, new ItemEntry(entry.getKey(), itemIndex,
-                    entry.getValue().get("bedrock_id").intValue(), entry.getValue().get("bedrock_data").intValue()));
-            itemIndex++;
-        }
-        
         // Load sound mappings
         SoundMap.get();
         // Load the locale data
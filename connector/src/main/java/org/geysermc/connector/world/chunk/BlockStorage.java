@@ -10,15 +10,20 @@
 
 package org.geysermc.connector.world.chunk;
 
-import com.nukkitx.network.VarInts;
-import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.geysermc.connector.world.chunk.bitarray.BitArray;
 import org.geysermc.connector.world.chunk.bitarray.BitArrayVersion;
 
-import java.util.function.IntConsumer;
-
+/**
+ * A layer of blocks in a chunk section, stored as a palette of block IDs and
+ * the palette index of every block.
+ * <p>
+ * A block storage is only ever written by a single thread at a time (the thread translating
+ * or updating its chunk), so it does not synchronize any of its accessors.
+ */
 public class BlockStorage {
 
     private static final int SIZE = 4096;
@@ -26,6 +31,11 @@ public class BlockStorage {
     private final IntList palette;
     private BitArray bitArray;
 
+    /**
+     * Runtime ID to palette index lookup, created the first time a block is set
+     */
+    private Int2IntMap paletteIndexes;
+
     public BlockStorage() {
         this(BitArrayVersion.V2);
     }
@@ -36,56 +46,106 @@ public class BlockStorage {
         this.palette.add(0); // Air is at the start of every palette.
     }
 
-    private BlockStorage(BitArray bitArray, IntArrayList palette) {
+    /**
+     * Creates a block storage from an already built palette.
+     *
+     * @param palette the runtime IDs making up the palette
+     * @param paletteIndices the palette index of every block in this storage
+     */
+    public BlockStorage(IntList palette, int[] paletteIndices) {
         this.palette = palette;
-        this.bitArray = bitArray;
+        this.bitArray = BitArrayVersion.forBitsCeil(bitsForPaletteSize(palette.size())).createPalette(SIZE);
+        this.bitArray.setAll(paletteIndices);
     }
 
-    private static int getPaletteHeader(BitArrayVersion version, boolean runtime) {
+    static int getPaletteHeader(BitArrayVersion version, boolean runtime) {
         return (version.getId() << 1) | (runtime ? 1 : 0);
     }
 
-    private static BitArrayVersion getVersionFromHeader(byte header) {
-        return BitArrayVersion.get(header >> 1, true);
+    static int bitsForPaletteSize(int size) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(size - 1));
     }
 
-    public synchronized int getFullBlock(int index) {
+    public int getFullBlock(int index) {
         return this.palette.getInt(this.bitArray.get(index));
     }
 
-    public synchronized void setFullBlock(int index, int runtimeId) {
+    public void setFullBlock(int index, int runtimeId) {
         int idx = this.idFor(runtimeId);
         this.bitArray.set(index, idx);
     }
 
-    public synchronized void writeToNetwork(ByteBuf buffer) {
-        buffer.writeByte(getPaletteHeader(bitArray.getVersion(), true));
+    /**
+     * Gets the palette of this storage, which must not be modified
+     *
+     * @return the runtime IDs making up the palette
+     */
+    public IntList getPalette() {
+        return palette;
+    }
+
+    /**
+     * Reads the palette index of every block in this storage
+     *
+     * @param paletteIndices the array to read the palette indices into
+     */
+    public void getPaletteIndices(int[] paletteIndices) {
+        this.bitArray.getAll(paletteIndices);
+    }
+
+    BitArray getBitArray() {
+        return bitArray;
+    }
 
-        for (int word : bitArray.getWords()) {
-            buffer.writeIntLE(word);
+    /**
+     * Gets a rough estimate of the heap memory used by this storage
+     *
+     * @return the memory used in bytes
+     */
+    public int getMemoryUsage() {
+        int size = (this.bitArray.getWords().length << 2) + (this.palette.size() << 2);
+        if (this.paletteIndexes != null) {
+            size += this.paletteIndexes.size() * 12;
         }
+        return size;
+    }
 
-        VarInts.writeInt(buffer, palette.size());
-        palette.forEach((IntConsumer) id -> VarInts.writeInt(buffer, id));
+    static int varIntSize(int value) {
+        int encoded = (value << 1) ^ (value >> 31);
+        int size = 1;
+        while ((encoded & ~0x7F) != 0) {
+            encoded >>>= 7;
+            size++;
+        }
+        return size;
     }
 
     private void onResize(BitArrayVersion version) {
-        BitArray newBitArray = version.createPalette(SIZE);
+        int[] indices = new int[SIZE];
+        this.bitArray.getAll(indices);
 
-        for (int i = 0; i < SIZE; i++) {
-            newBitArray.set(i, this.bitArray.get(i));
-        }
+        BitArray newBitArray = version.createPalette(SIZE);
+        newBitArray.setAll(indices);
         this.bitArray = newBitArray;
     }
 
     private int idFor(int runtimeId) {
-        int index = this.palette.indexOf(runtimeId);
+        if (this.paletteIndexes == null) {
+            this.paletteIndexes = new Int2IntOpenHashMap(this.palette.size());
+            this.paletteIndexes.defaultReturnValue(-1);
+            for (int i = 0; i < this.palette.size(); i++) {
+                this.paletteIndexes.putIfAbsent(this.palette.getInt(i), i);
+            }
+        }
+
+        int index = this.paletteIndexes.get(runtimeId);
         if (index != -1) {
             return index;
         }
 
         index = this.palette.size();
         this.palette.add(runtimeId);
+        this.paletteIndexes.put(runtimeId, index);
         BitArrayVersion version = this.bitArray.getVersion();
         if (index > version.getMaxEntryValue()) {
             BitArrayVersion next = version.next();
@@ -95,20 +155,4 @@ public class BlockStorage {
         }
         return index;
     }
-
-    public boolean isEmpty() {
-        if (this.palette.size() == 1) {
-            return true;
-        }
-        for (int word : this.bitArray.getWords()) {
-            if (Integer.toUnsignedLong(word) != 0L) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    public BlockStorage copy() {
-        return new BlockStorage(this.bitArray.copy(), new IntArrayList(this.palette));
-    }
-}
\ No newline at end of file
+}
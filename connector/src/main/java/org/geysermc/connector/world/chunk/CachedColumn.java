@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.world.chunk;
+
+import com.github.steveice10.mc.protocol.data.game.chunk.Chunk;
+import com.github.steveice10.mc.protocol.data.game.chunk.Column;
+import com.github.steveice10.mc.protocol.data.game.chunk.FlexibleStorage;
+import com.github.steveice10.mc.protocol.data.game.world.block.BlockState;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import lombok.Getter;
+import org.geysermc.connector.network.translators.BiomeTranslator;
+import org.geysermc.connector.network.translators.block.BlockTranslator;
+
+import java.util.List;
+
+/**
+ * A compact copy of a Java column kept by a session. Every section is stored as a palette of
+ * Java block state IDs and packed palette indices, in Java (YZX) block order.
+ * <p>
+ * Columns are changed by the session that owns them and read by the chunk threads while they
+ * are translated, so accessors should synchronize on the column.
+ */
+@Getter
+public class CachedColumn {
+
+    private static final int SECTION_SIZE = 4096;
+
+    /**
+     * Rough heap overhead of a column and of every allocated section
+     */
+    private static final int COLUMN_OVERHEAD = 64;
+    private static final int SECTION_OVERHEAD = 96;
+
+    private final int x;
+    private final int z;
+
+    /**
+     * The block sections of this column, null for sections only made of air
+     */
+    private final BlockStorage[] sections;
+
+    /**
+     * The Bedrock biome data of this column
+     */
+    private final byte[] biomes;
+
+    private CachedColumn(int x, int z, BlockStorage[] sections, byte[] biomes) {
+        this.x = x;
+        this.z = z;
+        this.sections = sections;
+        this.biomes = biomes;
+    }
+
+    /**
+     * Copies a full Java column
+     *
+     * @param column the Java column, which must include biome data
+     * @return the compact copy of the column
+     */
+    public static CachedColumn fromJava(Column column) {
+        Chunk[] chunks = column.getChunks();
+        BlockStorage[] sections = new BlockStorage[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk chunk = chunks[i];
+            if (chunk != null && !chunk.isEmpty()) {
+                sections[i] = fromJava(chunk);
+            }
+        }
+        return new CachedColumn(column.getX(), column.getZ(), sections, BiomeTranslator.toBedrockBiome(column.getBiomeData()));
+    }
+
+    /**
+     * Copies the sections of a non-full Java column over the sections of this column.
+     * Sections that are not included in the Java column are left unchanged.
+     *
+     * @param column the non-full Java column
+     */
+    public void merge(Column column) {
+        Chunk[] chunks = column.getChunks();
+        for (int i = 0; i < chunks.length && i < sections.length; i++) {
+            Chunk chunk = chunks[i];
+            if (chunk != null) {
+                sections[i] = chunk.isEmpty() ? null : fromJava(chunk);
+            }
+        }
+    }
+
+    private static BlockStorage fromJava(Chunk chunk) {
+        int[] indices = new int[SECTION_SIZE];
+        unpack(chunk.getStorage(), indices);
+        IntList palette;
+        if (chunk.getBitsPerEntry() > 8) {
+            // The global palette stores Java IDs directly, so a palette has to be built
+            palette = new IntArrayList(16);
+            Int2IntMap paletteIndexes = new Int2IntOpenHashMap();
+            paletteIndexes.defaultReturnValue(-1);
+            for (int i = 0; i < SECTION_SIZE; i++) {
+                int javaId = indices[i];
+                int index = paletteIndexes.get(javaId);
+                if (index == -1) {
+                    index = palette.size();
+                    palette.add(javaId);
+                    paletteIndexes.put(javaId, index);
+                }
+                indices[i] = index;
+            }
+        } else {
+            List<BlockState> states = chunk.getStates();
+            palette = new IntArrayList(states.size() + 1);
+            for (BlockState state : states) {
+                palette.add(state.getId());
+            }
+
+            int airIndex = -1;
+            for (int i = 0; i < SECTION_SIZE; i++) {
+                if (indices[i] >= states.size()) {
+                    // Out of range entries are treated as air
+                    if (airIndex == -1) {
+                        airIndex = palette.size();
+                        palette.add(BlockTranslator.AIR.getId());
+                    }
+                    indices[i] = airIndex;
+                }
+            }
+        }
+        return new BlockStorage(palette, indices);
+    }
+
+    /**
+     * Reads every value of a Java storage straight from its packed longs, keeping the current long
+     * around instead of locating it again for every value like {@link FlexibleStorage#get(int)}
+     */
+    private static void unpack(FlexibleStorage storage, int[] values) {
+        long[] data = storage.getData();
+        int bits = storage.getBitsPerEntry();
+        if ((long) data.length * 64 < (long) SECTION_SIZE * bits) {
+            // Malformed storage, let MCProtocolLib deal with it
+            for (int i = 0; i < SECTION_SIZE; i++) {
+                values[i] = storage.get(i);
+            }
+            return;
+        }
+
+        long mask = (1L << bits) - 1;
+        int dataIndex = 0;
+        long word = data[0];
+        int bitIndex = 0;
+        for (int i = 0; i < SECTION_SIZE; i++) {
+            if (bitIndex + bits <= 64) {
+                values[i] = (int) ((word >>> bitIndex) & mask);
+                bitIndex += bits;
+                if (bitIndex == 64 && ++dataIndex < data.length) {
+                    word = data[dataIndex];
+                    bitIndex = 0;
+                }
+            } else {
+                // The value continues in the next long
+                long low = word >>> bitIndex;
+                int lowBits = 64 - bitIndex;
+                word = data[++dataIndex];
+                values[i] = (int) ((low | (word << lowBits)) & mask);
+                bitIndex = bits - lowBits;
+            }
+        }
+    }
+
+    /**
+     * Gets a block of this column
+     *
+     * @param x the X coordinate in the column, between 0 and 15
+     * @param y the Y coordinate
+     * @param z the Z coordinate in the column, between 0 and 15
+     * @return the Java block state ID, air if the Y coordinate is out of range
+     */
+    public int getBlock(int x, int y, int z) {
+        int sectionY = y >> 4;
+        if (sectionY < 0 || sectionY >= sections.length) {
+            return BlockTranslator.AIR.getId();
+        }
+        BlockStorage section = sections[sectionY];
+        if (section == null) {
+            return BlockTranslator.AIR.getId();
+        }
+        return section.getFullBlock(blockIndex(x, y & 15, z));
+    }
+
+    /**
+     * Changes a block of this column
+     *
+     * @param x the X coordinate in the column, between 0 and 15
+     * @param y the Y coordinate
+     * @param z the Z coordinate in the column, between 0 and 15
+     * @param javaId the new Java block state ID
+     * @return the previous Java block state ID, air if the Y coordinate is out of range
+     */
+    public int setBlock(int x, int y, int z, int javaId) {
+        int sectionY = y >> 4;
+        if (sectionY < 0 || sectionY >= sections.length) {
+            return BlockTranslator.AIR.getId();
+        }
+        BlockStorage section = sections[sectionY];
+        if (section == null) {
+            if (javaId == BlockTranslator.AIR.getId()) {
+                return javaId;
+            }
+            section = sections[sectionY] = new BlockStorage();
+        }
+        int index = blockIndex(x, y & 15, z);
+        int previous = section.getFullBlock(index);
+        section.setFullBlock(index, javaId);
+        return previous;
+    }
+
+    /**
+     * Gets a rough estimate of the heap memory used by this column
+     *
+     * @return the memory used in bytes
+     */
+    public int getMemoryUsage() {
+        int size = COLUMN_OVERHEAD + (sections.length << 2) + biomes.length;
+        for (BlockStorage section : sections) {
+            if (section != null) {
+                size += SECTION_OVERHEAD + section.getMemoryUsage();
+            }
+        }
+        return size;
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.world.chunk;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.geysermc.connector.utils.HashUtils;
+import org.geysermc.connector.world.chunk.bitarray.BitArray;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A connector-wide cache of encoded Bedrock chunk payloads, shared between sessions.
+ * Columns are keyed by a hash of their sections and biomes, so identical chunks are
+ * only translated once no matter how many players receive them.
+ */
+public class ChunkPayloadCache {
+
+    /**
+     * Rough per-entry overhead of the key, the entry and the map node
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * Length of the biome data that follows the sub chunks in a payload
+     */
+    public static final int BIOME_DATA_LENGTH = 256;
+
+    private final long maxBytes;
+    private final Map<Key, CachedChunk> chunks = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ChunkPayloadCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    public CachedChunk get(Key key) {
+        CachedChunk chunk;
+        synchronized (chunks) {
+            chunk = chunks.get(key);
+        }
+
+        if (chunk != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return chunk;
+    }
+
+    public void put(Key key, CachedChunk chunk) {
+        long size = chunk.getPayload().length + ENTRY_OVERHEAD;
+        if (size > maxBytes) {
+            return;
+        }
+
+        synchronized (chunks) {
+            CachedChunk previous = chunks.put(key, chunk);
+            if (previous != null) {
+                usedBytes -= previous.getPayload().length + ENTRY_OVERHEAD;
+            }
+            usedBytes += size;
+
+            Iterator<CachedChunk> iterator = chunks.values().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                usedBytes -= iterator.next().getPayload().length + ENTRY_OVERHEAD;
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (chunks) {
+            chunks.clear();
+            usedBytes = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (chunks) {
+            return chunks.size();
+        }
+    }
+
+    public long getUsedBytes() {
+        synchronized (chunks) {
+            return usedBytes;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Computes the cache key of a column from its block data and biomes.
+     * Two independent 64 bit hashes are used so that collisions are not a practical concern.
+     *
+     * @param column the cached column
+     * @return the cache key for the column
+     */
+    public static Key computeKey(CachedColumn column) {
+        long first = 0x6A09E667F3BCC909L;
+        long second = 0xBB67AE8584CAA73BL;
+
+        for (BlockStorage section : column.getSections()) {
+            if (section == null) {
+                first = mixFirst(first, -1);
+                second = mixSecond(second, -1);
+                continue;
+            }
+
+            BitArray bitArray = section.getBitArray();
+            first = mixFirst(first, bitArray.getVersion().getId());
+            second = mixSecond(second, bitArray.getVersion().getId());
+            IntList palette = section.getPalette();
+            // The lengths are part of the key, so values cannot move between the palette and the words
+            first = mixFirst(first, palette.size());
+            second = mixSecond(second, palette.size());
+            for (int i = 0; i < palette.size(); i++) {
+                first = mixFirst(first, palette.getInt(i));
+                second = mixSecond(second, palette.getInt(i));
+            }
+            int[] words = bitArray.getWords();
+            first = mixFirst(first, words.length);
+            second = mixSecond(second, words.length);
+            for (int word : words) {
+                first = mixFirst(first, word);
+                second = mixSecond(second, word);
+            }
+        }
+
+        for (byte biome : column.getBiomes()) {
+            first = mixFirst(first, biome);
+            second = mixSecond(second, biome);
+        }
+        return new Key(first, second);
+    }
+
+    private static long mixFirst(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long mixSecond(long hash, long value) {
+        hash = Long.rotateLeft(hash + value, 27) * 0xC2B2AE3D27D4EB4FL;
+        return hash ^ (hash >>> 29);
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static final class Key {
+        private final long first;
+        private final long second;
+    }
+
+    @Getter
+    public static final class CachedChunk {
+        private final int subChunksLength;
+        private final byte[] payload;
+
+        /**
+         * Start offsets of every sub chunk in the payload, followed by the start of the biome data
+         */
+        private final int[] blobOffsets;
+
+        private volatile long[] blobIds;
+
+        public CachedChunk(int subChunksLength, byte[] payload, int[] blobOffsets) {
+            this.subChunksLength = subChunksLength;
+            this.payload = payload;
+            this.blobOffsets = blobOffsets;
+        }
+
+        /**
+         * Gets the blob IDs used by the Bedrock client blob cache: one per sub chunk,
+         * followed by one for the biome data. These are computed once and shared between sessions.
+         *
+         * @return the blob IDs of this chunk
+         */
+        public long[] getBlobIds() {
+            long[] blobIds = this.blobIds;
+            if (blobIds == null) {
+                blobIds = new long[subChunksLength + 1];
+                for (int i = 0; i < blobIds.length; i++) {
+                    blobIds[i] = HashUtils.xxHash64(payload, blobOffsets[i], getBlobLength(i));
+                }
+                this.blobIds = blobIds;
+            }
+            return blobIds;
+        }
+
+        public byte[] getBlob(int index) {
+            return Arrays.copyOfRange(payload, blobOffsets[index], blobOffsets[index] + getBlobLength(index));
+        }
+
+        /**
+         * Gets the data that is not part of any blob and is therefore always sent with the chunk
+         *
+         * @return the border blocks and extra data of this chunk
+         */
+        public byte[] getNonBlobData() {
+            return Arrays.copyOfRange(payload, getNonBlobDataOffset(), payload.length);
+        }
+
+        public int getNonBlobDataLength() {
+            return payload.length - getNonBlobDataOffset();
+        }
+
+        private int getNonBlobDataOffset() {
+            return blobOffsets[subChunksLength] + BIOME_DATA_LENGTH;
+        }
+
+        private int getBlobLength(int index) {
+            if (index == subChunksLength) {
+                return BIOME_DATA_LENGTH;
+            }
+            return blobOffsets[index + 1] - blobOffsets[index];
+        }
+    }
+}
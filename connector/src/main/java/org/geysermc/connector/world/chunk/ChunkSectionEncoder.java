@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.connector.world.chunk;
+
+import com.nukkitx.network.VarInts;
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import lombok.Getter;
+import org.geysermc.connector.network.translators.block.BlockTranslator;
+import org.geysermc.connector.world.chunk.bitarray.BitArrayVersion;
+
+import java.util.Arrays;
+
+import static org.geysermc.connector.network.translators.block.BlockTranslator.WATERLOGGED_FLAG;
+
+/**
+ * Encodes cached Java sections straight into the Bedrock sub chunk format, without building
+ * Bedrock {@link BlockStorage}s in between.
+ * <p>
+ * A section is first prepared, which remaps its palette and computes its exact size, and is then
+ * written. An encoder reuses its buffers between sections, so it must only be used by one thread.
+ */
+public class ChunkSectionEncoder {
+
+    private static final int CHUNK_SECTION_VERSION = 8;
+    private static final int SIZE = 4096;
+    private static final int[] WATER_PALETTE = {0, BlockTranslator.BEDROCK_WATER_ID};
+
+    /**
+     * Written for sections that are not allocated: a single layer of air
+     */
+    private static final PreparedSection EMPTY_SECTION = new PreparedSection(new int[]{0}, new int[0], false);
+
+    private final int[] javaIndices = new int[SIZE];
+    private final int[] values = new int[SIZE];
+
+    /**
+     * Remaps the palette of a cached section to Bedrock runtime IDs. Only palette entries that are
+     * used end up in the Bedrock palette, in the order they are first used.
+     *
+     * @param javaSection the cached section holding Java block state IDs, or null for an empty section
+     * @return the prepared section
+     */
+    public PreparedSection prepare(BlockStorage javaSection) {
+        if (javaSection == null) {
+            return EMPTY_SECTION;
+        }
+
+        int[] bedrockIds = javaSection.getPalette().toIntArray();
+        BlockTranslator.translate(bedrockIds, bedrockIds);
+        int[] remappedPalette = new int[bedrockIds.length];
+        Arrays.fill(remappedPalette, -1);
+
+        IntList bedrockPalette = new IntArrayList(16);
+        Int2IntMap bedrockPaletteIndexes = new Int2IntOpenHashMap();
+        bedrockPaletteIndexes.defaultReturnValue(-1);
+        boolean waterlogged = false;
+
+        javaSection.getPaletteIndices(javaIndices);
+        for (int i = 0; i < SIZE; i++) {
+            int value = javaIndices[i];
+            if (remappedPalette[value] != -1) {
+                continue;
+            }
+
+            int bedrockId = bedrockIds[value];
+            int runtimeId = bedrockId & ~WATERLOGGED_FLAG;
+            int index = bedrockPaletteIndexes.get(runtimeId);
+            if (index == -1) {
+                index = bedrockPalette.size();
+                bedrockPalette.add(runtimeId);
+                bedrockPaletteIndexes.put(runtimeId, index);
+            }
+            remappedPalette[value] = index | (bedrockId & WATERLOGGED_FLAG);
+            waterlogged |= (bedrockId & WATERLOGGED_FLAG) != 0;
+        }
+        return new PreparedSection(bedrockPalette.toIntArray(), remappedPalette, waterlogged);
+    }
+
+    /**
+     * Writes a prepared section in the Bedrock sub chunk format
+     *
+     * @param buffer the buffer to write to
+     * @param javaSection the cached section the section was prepared from
+     * @param section the prepared section
+     */
+    public void write(ByteBuf buffer, BlockStorage javaSection, PreparedSection section) {
+        buffer.writeByte(CHUNK_SECTION_VERSION);
+        buffer.writeByte(section.waterlogged ? 2 : 1);
+
+        if (section.palette.length > 1 || section.waterlogged) {
+            // Reorder the remapped blocks from Java (YZX) to Bedrock (XZY) order
+            javaSection.getPaletteIndices(javaIndices);
+            int[] remappedPalette = section.remappedPalette;
+            for (int bedrockIndex = 0; bedrockIndex < SIZE; bedrockIndex++) {
+                int javaIndex = ((bedrockIndex & 15) << 8) | (bedrockIndex & 0xF0) | (bedrockIndex >> 8);
+                values[bedrockIndex] = remappedPalette[javaIndices[javaIndex]];
+            }
+        }
+
+        writeStorage(buffer, section.palette, false);
+        if (section.waterlogged) {
+            writeStorage(buffer, WATER_PALETTE, true);
+        }
+    }
+
+    private void writeStorage(ByteBuf buffer, int[] palette, boolean waterLayer) {
+        if (palette.length == 1) {
+            // Every block is the same, so the smallest storage is used
+            buffer.writeByte(BlockStorage.getPaletteHeader(BitArrayVersion.V1, true));
+            buffer.writeZero(BitArrayVersion.V1.getWordsForSize(SIZE) << 2);
+        } else {
+            BitArrayVersion version = getVersion(palette.length);
+            buffer.writeByte(BlockStorage.getPaletteHeader(version, true));
+
+            int bits = version.getId();
+            int entriesPerWord = version.getEntriesPerWord();
+            int words = version.getWordsForSize(SIZE);
+            int index = 0;
+            for (int i = 0; i < words; i++) {
+                int word = 0;
+                for (int shift = 0; shift < bits * entriesPerWord && index < SIZE; shift += bits) {
+                    int value = values[index++];
+                    word |= (waterLayer ? value >>> 31 : value & ~WATERLOGGED_FLAG) << shift;
+                }
+                buffer.writeIntLE(word);
+            }
+        }
+
+        VarInts.writeInt(buffer, palette.length);
+        for (int runtimeId : palette) {
+            VarInts.writeInt(buffer, runtimeId);
+        }
+    }
+
+    private static int getStorageSize(int[] palette) {
+        int words = palette.length == 1 ? BitArrayVersion.V1.getWordsForSize(SIZE) : getVersion(palette.length).getWordsForSize(SIZE);
+        int size = 1 + (words << 2) + BlockStorage.varIntSize(palette.length);
+        for (int runtimeId : palette) {
+            size += BlockStorage.varIntSize(runtimeId);
+        }
+        return size;
+    }
+
+    private static BitArrayVersion getVersion(int paletteSize) {
+        return BitArrayVersion.forBitsCeil(BlockStorage.bitsForPaletteSize(paletteSize));
+    }
+
+    public static final class PreparedSection {
+        private final int[] palette;
+
+        /**
+         * The Bedrock palette index of every Java palette entry, with {@link BlockTranslator#WATERLOGGED_FLAG}
+         * set for waterlogged blocks, or -1 for unused entries
+         */
+        private final int[] remappedPalette;
+        private final boolean waterlogged;
+
+        /**
+         * The exact amount of bytes {@link #write(ByteBuf, BlockStorage, PreparedSection)} writes for this section
+         */
+        @Getter
+        private final int networkSize;
+
+        private PreparedSection(int[] palette, int[] remappedPalette, boolean waterlogged) {
+            this.palette = palette;
+            this.remappedPalette = remappedPalette;
+            this.waterlogged = waterlogged;
+            this.networkSize = 2 + getStorageSize(palette) + (waterlogged ? getStorageSize(WATER_PALETTE) : 0);
+        }
+
+        /**
+         * Checks if this section only contains air, in which case it does not need to be sent
+         * when no sections above it are sent either
+         *
+         * @return true if the section only contains air
+         */
+        public boolean isEmpty() {
+            return !waterlogged && palette.length == 1 && palette[0] == 0;
+        }
+    }
+}
@@ -16,6 +16,20 @@ public interface BitArray {
 
     int get(int index);
 
+    /**
+     * Sets every entry of this array at once
+     *
+     * @param values the values to set, must hold {@link #size()} entries
+     */
+    void setAll(int[] values);
+
+    /**
+     * Reads every entry of this array at once
+     *
+     * @param values the array to read the values into, must hold {@link #size()} entries
+     */
+    void getAll(int[] values);
+
     int size();
 
     int[] getWords();
@@ -43,6 +43,22 @@ public enum BitArrayVersion {
         throw new IllegalArgumentException("Invalid palette version: " + version);
     }
 
+    /**
+     * Gets the smallest version that is able to hold values of the given amount of bits
+     *
+     * @param bits the amount of bits required per entry
+     * @return the smallest fitting version, or null if no version can hold that many bits
+     */
+    public static BitArrayVersion forBitsCeil(int bits) {
+        BitArrayVersion[] versions = values();
+        for (int i = versions.length - 1; i >= 0; i--) {
+            if (versions[i].bits >= bits) {
+                return versions[i];
+            }
+        }
+        return null;
+    }
+
     public BitArray createPalette(int size) {
         return this.createPalette(size, new int[MathUtils.ceil((float) size / entriesPerWord)]);
     }
@@ -51,6 +67,10 @@ public enum BitArrayVersion {
         return bits;
     }
 
+    public int getEntriesPerWord() {
+        return entriesPerWord;
+    }
+
     public int getMaxEntryValue() {
         return maxEntryValue;
     }
@@ -63,6 +83,66 @@ public enum BitArrayVersion {
         return next;
     }
 
+    /**
+     * Packs values into words, filling whole words at a time
+     *
+     * @param values the values to pack
+     * @param words the words to pack the values into
+     * @param size the amount of values to pack
+     */
+    void pack(int[] values, int[] words, int size) {
+        int bits = this.bits;
+        int entriesPerWord = this.entriesPerWord;
+        int mask = this.maxEntryValue;
+        int fullWords = size / entriesPerWord;
+
+        int index = 0;
+        for (int i = 0; i < fullWords; i++) {
+            int word = 0;
+            for (int shift = 0; shift < bits * entriesPerWord; shift += bits) {
+                word |= (values[index++] & mask) << shift;
+            }
+            words[i] = word;
+        }
+
+        if (index < size) {
+            int word = 0;
+            for (int shift = 0; index < size; shift += bits) {
+                word |= (values[index++] & mask) << shift;
+            }
+            words[fullWords] = word;
+        }
+    }
+
+    /**
+     * Unpacks values from words, reading whole words at a time
+     *
+     * @param words the words to unpack
+     * @param values the array to unpack the values into
+     * @param size the amount of values to unpack
+     */
+    void unpack(int[] words, int[] values, int size) {
+        int bits = this.bits;
+        int entriesPerWord = this.entriesPerWord;
+        int mask = this.maxEntryValue;
+        int fullWords = size / entriesPerWord;
+
+        int index = 0;
+        for (int i = 0; i < fullWords; i++) {
+            int word = words[i];
+            for (int shift = 0; shift < bits * entriesPerWord; shift += bits) {
+                values[index++] = (word >>> shift) & mask;
+            }
+        }
+
+        if (index < size) {
+            int word = words[fullWords];
+            for (int shift = 0; index < size; shift += bits) {
+                values[index++] = (word >>> shift) & mask;
+            }
+        }
+    }
+
     public BitArray createPalette(int size, int[] words) {
         if (this == V3 || this == V5 || this == V6) {
             // Padded palettes aren't able to use bitwise operations due to their padding.
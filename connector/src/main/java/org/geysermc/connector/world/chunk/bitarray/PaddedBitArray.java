@@ -62,6 +62,18 @@ public class PaddedBitArray implements BitArray {
         return (this.words[arrayIndex] >>> offset) & this.version.maxEntryValue;
     }
 
+    @Override
+    public void setAll(int[] values) {
+        Preconditions.checkArgument(values.length >= this.size, "Expected at least %s values", this.size);
+        this.version.pack(values, this.words, this.size);
+    }
+
+    @Override
+    public void getAll(int[] values) {
+        Preconditions.checkArgument(values.length >= this.size, "Expected at least %s values", this.size);
+        this.version.unpack(this.words, values, this.size);
+    }
+
     @Override
     public int size() {
         return this.size;
@@ -66,6 +66,18 @@ public class Pow2BitArray implements BitArray {
         return this.words[arrayIndex] >>> wordOffset & this.version.maxEntryValue;
     }
 
+    @Override
+    public void setAll(int[] values) {
+        Preconditions.checkArgument(values.length >= this.size, "Expected at least %s values", this.size);
+        this.version.pack(values, this.words, this.size);
+    }
+
+    @Override
+    public void getAll(int[] values) {
+        Preconditions.checkArgument(values.length >= this.size, "Expected at least %s values", this.size);
+        this.version.unpack(this.words, values, this.size);
+    }
+
     /**
      * Gets the long array that is used to store the data in this BitArray. This is useful for sending packet data.
      */